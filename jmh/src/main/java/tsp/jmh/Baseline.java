@@ -0,0 +1,213 @@
+package tsp.jmh;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * The kernels as they were before the shared tsp package replaced them
+ * (lab2 SimulatedAnnealingTSP and TabooSearchTSP, lab3 GeneticAlgorithmTSP
+ * and AMTSP), copied unchanged so that every optimisation can be measured
+ * against them. Do not tune this class.
+ */
+final class Baseline {
+
+    private static final Random random = new Random(Instances.SEED);
+
+    private Baseline() {
+    }
+
+    // Calculate the euclidean distance between two cities
+    static double euclideanDistance(double[] city1, double[] city2) {
+        return Math.sqrt(Math.pow(city1[0] - city2[0], 2) + Math.pow(city1[1] - city2[1], 2));
+    }
+
+    // Calculate the total distance of the tour
+    static double totalDistance(int[] tour, double[][] coordinates) {
+        double distance = 0;
+        for (int i = 1; i < tour.length; i++) {
+            distance += euclideanDistance(coordinates[tour[i - 1]], coordinates[tour[i]]);
+        }
+        // Add distance from the last city back to the first city
+        distance += euclideanDistance(coordinates[tour[tour.length - 1]], coordinates[tour[0]]);
+        return distance;
+    }
+
+    // Generate a neighboring solution
+    static int[] getNeighborInvert(int[] tour) {
+        int a = random.nextInt(tour.length);
+        int b = random.nextInt(tour.length);
+        while (b == a) {
+            b = random.nextInt(tour.length);
+        }
+        int start = Math.min(a, b);
+        int end = Math.max(a, b);
+
+        int[] newTour = tour.clone();
+        while (start < end) {
+            int temp = newTour[start];
+            newTour[start] = newTour[end];
+            newTour[end] = temp;
+            start++;
+            end--;
+        }
+        return newTour;
+    }
+
+    //Selekcja Turnejowa
+    static int[] selectParent(int[][] population, double[][] coordinates) {
+        int tournamentSize = 5;
+        int best = random.nextInt(population.length);
+        double bestFitness = totalDistance(population[best], coordinates);
+
+        for (int i = 1; i < tournamentSize; i++) {
+            int index = random.nextInt(population.length);
+            double fitness = totalDistance(population[index], coordinates);
+            if (fitness < bestFitness) {
+                best = index;
+                bestFitness = fitness;
+            }
+        }
+        return population[best];
+    }
+
+    // Implementacja metod krzyżowania
+    static int[] pmxCrossover(int[] parent1, int[] parent2) {
+        int length = parent1.length;
+        int[] child = new int[length];
+        Arrays.fill(child, -1); // Inicjalizacja dziecka z wartościami -1
+
+        // Losowe wybieranie dwóch punktów krzyżowania
+        int start = random.nextInt(length);
+        int end = random.nextInt(length - start) + start;
+
+        // Kopiowanie segmentu z pierwszego rodzica do dziecka
+        for (int i = start; i <= end; i++) {
+            child[i] = parent1[i];
+        }
+
+        // Wypełnianie pozostałych miejsc w dziecku elementami z drugiego rodzica
+        for (int i = 0; i < start; i++) {
+            if (!contains(child, parent2[i])) {
+                child[i] = parent2[i];
+            }
+        }
+        for (int i = end + 1; i < length; i++) {
+            if (!contains(child, parent2[i])) {
+                child[i] = parent2[i];
+            }
+        }
+
+        // Naprawianie brakujących elementów
+        for (int i = 0; i < length; i++) {
+            if (child[i] == -1) {
+                for (int j = 0; j < length; j++) {
+                    if (!contains(child, parent2[j])) {
+                        child[i] = parent2[j];
+                        break;
+                    }
+                }
+            }
+        }
+
+        return child;
+    }
+
+    private static boolean contains(int[] array, int value) {
+        for (int i : array) {
+            if (i == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static int[] oxCrossover(int[] parent1, int[] parent2) {
+        int length = parent1.length;
+        int[] child = new int[length];
+        Arrays.fill(child, -1);
+
+        int start = random.nextInt(length);
+        int end = random.nextInt(length);
+        if (start > end) {
+            int temp = start;
+            start = end;
+            end = temp;
+        }
+
+        for (int i = start; i <= end; i++) {
+            child[i] = parent1[i];
+        }
+
+        int currentIndex = 0;
+        for (int i = 0; i < length; i++) {
+            if (!contains(child, parent2[i])) {
+                while (currentIndex >= start && currentIndex <= end) {
+                    currentIndex++;
+                }
+                child[currentIndex++] = parent2[i];
+            }
+        }
+        return child;
+    }
+
+    private static void twoOptSwap(int[] tour, int i, int k) {
+        while (i < k) {
+            int temp = tour[i];
+            tour[i] = tour[k];
+            tour[k] = temp;
+            i++;
+            k--;
+        }
+    }
+
+    static int[] twoOpt(int[] tour, double[][] coordinates) {
+        int[] newTour = tour.clone();
+        double bestDistance = totalDistance(newTour, coordinates);
+
+        for (int i = 0; i < newTour.length - 1; i++) {
+            for (int k = i + 1; k < newTour.length; k++) {
+                twoOptSwap(newTour, i, k);
+                double newDistance = totalDistance(newTour, coordinates);
+                if (newDistance < bestDistance) {
+                    bestDistance = newDistance;
+                } else {
+                    twoOptSwap(newTour, i, k); // Przywróć oryginalny porządek, jeśli nie ma poprawy
+                }
+            }
+        }
+        return newTour;
+    }
+
+    // The tabu list of TabooSearchTSP is a HashSet<Pair> of segment bounds
+    static class Pair {
+        private final int first;
+        private final int second;
+
+        public Pair(int first, int second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        public int getFirst() {
+            return first;
+        }
+
+        public int getSecond() {
+            return second;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Pair pair = (Pair) o;
+            return first == pair.first && second == pair.second;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(first, second);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package tsp.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tsp.DistanceMatrix;
+import tsp.Instance;
+
+/**
+ * euclideanDistance and totalDistance: Math.pow on coordinate rows against
+ * DistanceMatrix (computed or cached, whichever storage it picks for n).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceBenchmark {
+
+    @Param({"xqf131", "xqg237", "bcl380", "xit1083", "icw1483", "djc1785", "dcb2086", "pds2566"})
+    public String instance;
+
+    private double[][] coordinates;
+    private double[] xs;
+    private double[] ys;
+    private DistanceMatrix distances;
+    private int[] tour;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        Instance loaded = Instances.load(instance);
+        coordinates = Instances.coordinates(loaded);
+        xs = loaded.xs();
+        ys = loaded.ys();
+        distances = DistanceMatrix.of(loaded);
+        tour = Instances.randomTour(loaded);
+        random = new SplittableRandom(Instances.SEED);
+    }
+
+    @Benchmark
+    public double baselineEuclideanDistance() {
+        return Baseline.euclideanDistance(coordinates[random.nextInt(coordinates.length)], coordinates[random.nextInt(coordinates.length)]);
+    }
+
+    @Benchmark
+    public double euclidean() {
+        int i = random.nextInt(xs.length);
+        int j = random.nextInt(xs.length);
+        return DistanceMatrix.euclidean(xs[i], ys[i], xs[j], ys[j]);
+    }
+
+    @Benchmark
+    public double matrixGet() {
+        return distances.get(random.nextInt(xs.length), random.nextInt(xs.length));
+    }
+
+    @Benchmark
+    public double baselineTotalDistance() {
+        return Baseline.totalDistance(tour, coordinates);
+    }
+
+    @Benchmark
+    public double tourLength() {
+        return distances.tourLength(tour);
+    }
+}
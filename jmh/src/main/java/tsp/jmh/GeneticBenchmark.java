@@ -0,0 +1,110 @@
+package tsp.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tsp.Crossover;
+import tsp.DistanceMatrix;
+import tsp.Instance;
+import tsp.Rng;
+
+/**
+ * The GA kernels: pmxCrossover and oxCrossover (allocating, O(n^2) contains
+ * scans) against Crossover, and selectParent (tour lengths recomputed for
+ * every contestant) against the tournament over cached lengths in Island.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneticBenchmark {
+
+    // Island size of GeneticAlgorithmTSP (1000 individuals on 8 islands)
+    private static final int POPULATION = 125;
+    private static final int TOURNAMENT_SIZE = 5;
+
+    @Param({"xqf131", "xqg237", "bcl380", "xit1083", "icw1483", "djc1785", "dcb2086", "pds2566"})
+    public String instance;
+
+    private double[][] coordinates;
+    private int[][] population;
+    private double[] fitness;
+    private int[] parent1;
+    private int[] parent2;
+    private int[] child;
+    private Crossover crossover;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        Instance loaded = Instances.load(instance);
+        int n = loaded.dimension();
+        coordinates = Instances.coordinates(loaded);
+        DistanceMatrix distances = DistanceMatrix.of(loaded);
+        random = new SplittableRandom(Instances.SEED);
+        population = new int[POPULATION][];
+        fitness = new double[POPULATION];
+        for (int i = 0; i < POPULATION; i++) {
+            population[i] = Rng.randomTour(n, random);
+            fitness[i] = distances.tourLength(population[i]);
+        }
+        parent1 = population[0];
+        parent2 = population[1];
+        child = new int[n];
+        crossover = new Crossover(n);
+    }
+
+    @Benchmark
+    public int[] baselinePmxCrossover() {
+        return Baseline.pmxCrossover(parent1, parent2);
+    }
+
+    @Benchmark
+    public int[] pmx() {
+        crossover.pmx(parent1, parent2, child, random);
+        return child;
+    }
+
+    @Benchmark
+    public int[] baselineOxCrossover() {
+        return Baseline.oxCrossover(parent1, parent2);
+    }
+
+    @Benchmark
+    public int[] ox() {
+        crossover.ox(parent1, parent2, child, random);
+        return child;
+    }
+
+    @Benchmark
+    public int[] baselineSelectParent() {
+        return Baseline.selectParent(population, coordinates);
+    }
+
+    // Same tournament as Island.selectParent
+    @Benchmark
+    public int selectParent() {
+        int best = random.nextInt(POPULATION);
+        for (int i = 1; i < TOURNAMENT_SIZE; i++) {
+            int index = random.nextInt(POPULATION);
+            if (fitness[index] < fitness[best]) {
+                best = index;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,42 @@
+package tsp.jmh;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import tsp.Instance;
+import tsp.Rng;
+import tsp.TspLib;
+
+/**
+ * Bundled instances for the benchmarks, read from the directory in the
+ * tsp.instances system property (../lab2 by default, i.e. relative to this
+ * module). Every benchmark starts from the same random tour of an instance.
+ */
+final class Instances {
+
+    // Seed of the start tours, fixed so that runs compare like with like
+    static final long SEED = 42;
+
+    private Instances() {
+    }
+
+    static Instance load(String name) {
+        Path directory = Path.of(System.getProperty("tsp.instances", "../lab2"));
+        try {
+            return TspLib.load(directory.resolve(name + ".tsp"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load instance " + name + " from " + directory.toAbsolutePath(), e);
+        }
+    }
+
+    // Rows of (x, y), the layout the original kernels take
+    static double[][] coordinates(Instance instance) {
+        return instance.coordinates();
+    }
+
+    static int[] randomTour(Instance instance) {
+        return Rng.randomTour(instance.dimension(), new SplittableRandom(SEED));
+    }
+}
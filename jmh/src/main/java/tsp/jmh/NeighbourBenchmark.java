@@ -0,0 +1,73 @@
+package tsp.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tsp.DistanceMatrix;
+import tsp.Instance;
+import tsp.TwoOpt;
+
+/**
+ * One annealing proposal. The baseline copies the tour with the segment
+ * inverted (getNeighborInvert) and measures the copy; SimulatedAnnealing
+ * scores the same inversion in O(1) from the four edges it changes (here
+ * TwoOpt.delta) and only flips the segment when the move is accepted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NeighbourBenchmark {
+
+    @Param({"xqf131", "xqg237", "bcl380", "xit1083", "icw1483", "djc1785", "dcb2086", "pds2566"})
+    public String instance;
+
+    private double[][] coordinates;
+    private DistanceMatrix distances;
+    private int[] tour;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        Instance loaded = Instances.load(instance);
+        coordinates = Instances.coordinates(loaded);
+        distances = DistanceMatrix.of(loaded);
+        tour = Instances.randomTour(loaded);
+        random = new SplittableRandom(Instances.SEED);
+    }
+
+    @Benchmark
+    public int[] baselineGetNeighborInvert() {
+        return Baseline.getNeighborInvert(tour);
+    }
+
+    @Benchmark
+    public double baselineProposal() {
+        return Baseline.totalDistance(Baseline.getNeighborInvert(tour), coordinates);
+    }
+
+    @Benchmark
+    public double proposal() {
+        int n = tour.length;
+        int a = random.nextInt(n);
+        int b = random.nextInt(n - 1);
+        if (b >= a) {
+            b++;
+        }
+        return TwoOpt.delta(tour, Math.min(a, b), Math.max(a, b), distances);
+    }
+}
@@ -0,0 +1,81 @@
+package tsp.jmh;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tsp.EdgeTabu;
+import tsp.TabuList;
+
+/**
+ * Tabu membership checks at the tenure of TabooSearchTSP: the HashSet of
+ * boxed position pairs (a new Pair per lookup), TabuList on encoded moves,
+ * and the per-edge table EdgeTabu (whose size grows with n^2).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TabuBenchmark {
+
+    private static final int TENURE = 7;
+    // Iteration the checks happen at; edges forbidden until later are tabu
+    private static final int ITERATION = 100;
+
+    @Param({"xqf131", "xqg237", "bcl380", "xit1083", "icw1483", "djc1785", "dcb2086", "pds2566"})
+    public String instance;
+
+    private int n;
+    private Set<Baseline.Pair> baselineTabu;
+    private TabuList moves;
+    private EdgeTabu edges;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        n = Instances.load(instance).dimension();
+        random = new SplittableRandom(Instances.SEED);
+        baselineTabu = new HashSet<>();
+        moves = new TabuList(TENURE);
+        edges = new EdgeTabu(n);
+        for (int k = 0; k < TENURE; k++) {
+            int i = random.nextInt(n);
+            int j = random.nextInt(n);
+            baselineTabu.add(new Baseline.Pair(i, j));
+            moves.add(i, j);
+            edges.forbid(i, j == i ? (j + 1) % n : j, ITERATION + TENURE);
+        }
+    }
+
+    @Benchmark
+    public boolean baselineContains() {
+        return baselineTabu.contains(new Baseline.Pair(random.nextInt(n), random.nextInt(n)));
+    }
+
+    @Benchmark
+    public boolean tabuListContains() {
+        return moves.contains(random.nextInt(n), random.nextInt(n));
+    }
+
+    @Benchmark
+    public boolean edgeTabuIsTabu() {
+        int a = random.nextInt(n);
+        int b = random.nextInt(n - 1);
+        return edges.isTabu(a, b >= a ? b + 1 : b, ITERATION);
+    }
+}
@@ -0,0 +1,64 @@
+package tsp.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tsp.CandidateLists;
+import tsp.DistanceMatrix;
+import tsp.Instance;
+import tsp.TwoOptSearch;
+
+/**
+ * One 2-opt pass of AMTSP from a random tour (every move re-measures the
+ * whole tour, O(n^3)) against TwoOptSearch with candidate lists, which runs
+ * to a local optimum. The baseline needs seconds to a minute per call from
+ * xit1083 up, so only the small instances are listed; add others with -p.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class TwoOptBenchmark {
+
+    @Param({"xqf131", "xqg237", "bcl380"})
+    public String instance;
+
+    private double[][] coordinates;
+    private int[] start;
+    private int[] tour;
+    private TwoOptSearch search;
+
+    @Setup
+    public void setUp() {
+        Instance loaded = Instances.load(instance);
+        coordinates = Instances.coordinates(loaded);
+        start = Instances.randomTour(loaded);
+        tour = new int[start.length];
+        search = new TwoOptSearch(DistanceMatrix.of(loaded), CandidateLists.nearest(loaded, CandidateLists.DEFAULT_SIZE));
+    }
+
+    @Benchmark
+    public int[] baselineTwoOpt() {
+        return Baseline.twoOpt(start, coordinates);
+    }
+
+    @Benchmark
+    public int[] twoOptSearch() {
+        System.arraycopy(start, 0, tour, 0, start.length);
+        search.optimize(tour);
+        return tour;
+    }
+}
@@ -1,6 +1,11 @@
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
 
+import tsp.DistanceMatrix;
+import tsp.Instance;
+import tsp.TspLib;
+
 public class zad1 {
 
     public static void main(String[] args) {
@@ -9,26 +14,29 @@ public class zad1 {
             return;
         }
         String filePath = args[0];
-        double[][] coordinates = readTSPFile(filePath);
-
-        if (coordinates == null) {
-            System.out.println("Nie udało się wczytać danych.");
+        Instance instance;
+        try {
+            instance = TspLib.load(Path.of(filePath));
+        } catch (IOException e) {
+            System.out.println("Nie udało się wczytać danych: " + e.getMessage());
             return;
         }
 
-        MSTResult mstResult = calculateMST(coordinates);
+        DistanceMatrix distances = DistanceMatrix.of(instance);
+
+        MSTResult mstResult = calculateMST(distances);
         System.out.println("Waga minimalnego drzewa rozpinającego: " + mstResult.weight);
 
-        int numIterations = (int) Math.ceil(Math.sqrt(coordinates.length));
+        int numIterations = (int) Math.ceil(Math.sqrt(instance.dimension()));
         double totalDistance = 0;
         double bestDistance = Double.MAX_VALUE;
         int totalImprovementSteps = 0;
 
         Random random = new Random();
         for (int i = 0; i < numIterations; i++) {
-            int randomVertex = random.nextInt(coordinates.length);
-            List<Integer> cycle = constructCycleFromMST(mstResult.mst, coordinates.length, randomVertex);
-            LocalSearchResult result = localSearch(cycle, coordinates);
+            int randomVertex = random.nextInt(instance.dimension());
+            List<Integer> cycle = constructCycleFromMST(mstResult.mst, instance.dimension(), randomVertex);
+            LocalSearchResult result = localSearch(cycle, distances);
             totalDistance += result.distance;
             totalImprovementSteps += result.steps;
 
@@ -45,31 +53,8 @@ public class zad1 {
         System.out.println("Najlepsze znalezione rozwiązanie: " + bestDistance);
     }
 
-    private static double[][] readTSPFile(String filePath) {
-        List<double[]> coordList = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.startsWith("EOF")) {
-                    break;
-                }
-                if (line.matches("\\d+\\s+\\d+\\.?\\d*\\s+\\d+\\.?\\d*")) {
-                    String[] parts = line.trim().split("\\s+");
-                    double x = Double.parseDouble(parts[1]);
-                    double y = Double.parseDouble(parts[2]);
-                    coordList.add(new double[]{x, y});
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
-        }
-
-        return coordList.toArray(new double[0][]);
-    }
-
-    private static MSTResult calculateMST(double[][] coordinates) {
-        int n = coordinates.length;
+    private static MSTResult calculateMST(DistanceMatrix distances) {
+        int n = distances.size();
         double[] key = new double[n];
         int[] parent = new int[n];
         boolean[] mstSet = new boolean[n];
@@ -82,7 +67,7 @@ public class zad1 {
             int u = minKey(key, mstSet);
             mstSet[u] = true;
             for (int v = 0; v < n; v++) {
-                double weight = distance(coordinates[u], coordinates[v]);
+                double weight = distances.get(u, v);
                 if (!mstSet[v] && weight < key[v]) {
                     parent[v] = u;
                     key[v] = weight;
@@ -137,8 +122,8 @@ public class zad1 {
         }
     }
 
-    private static LocalSearchResult localSearch(List<Integer> path, double[][] coordinates) {
-        double currentDistance = calculateTotalDistance(path, coordinates);
+    private static LocalSearchResult localSearch(List<Integer> path, DistanceMatrix distances) {
+        double currentDistance = calculateTotalDistance(path, distances);
         int steps = 0;
         Random random = new Random();
 
@@ -152,7 +137,7 @@ public class zad1 {
                 if (j == i) continue;
 
                 Collections.swap(path, i, j);
-                double newDistance = calculateTotalDistance(path, coordinates);
+                double newDistance = calculateTotalDistance(path, distances);
                 if (newDistance < bestDistance) {
                     bestDistance = newDistance;
                     bestI = i;
@@ -171,19 +156,15 @@ public class zad1 {
         return new LocalSearchResult(path, currentDistance, steps);
     }
 
-    private static double calculateTotalDistance(List<Integer> path, double[][] coordinates) {
+    private static double calculateTotalDistance(List<Integer> path, DistanceMatrix distances) {
         double totalDistance = 0;
         for (int i = 0; i < path.size() - 1; i++) {
-            totalDistance += distance(coordinates[path.get(i)], coordinates[path.get(i + 1)]);
+            totalDistance += distances.get(path.get(i), path.get(i + 1));
         }
-        totalDistance += distance(coordinates[path.get(path.size() - 1)], coordinates[path.get(0)]);
+        totalDistance += distances.get(path.get(path.size() - 1), path.get(0));
         return totalDistance;
     }
 
-    private static double distance(double[] city1, double[] city2) {
-        return Math.sqrt(Math.pow(city1[0] - city2[0], 2) + Math.pow(city1[1] - city2[1], 2));
-    }
-
     private static class MSTResult {
         List<Edge> mst;
         double weight;
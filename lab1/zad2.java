@@ -1,6 +1,12 @@
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
 
+import tsp.CandidateLists;
+import tsp.DistanceMatrix;
+import tsp.Instance;
+import tsp.TspLib;
+
 public class zad2 {
 
     public static void main(String[] args) {
@@ -9,21 +15,38 @@ public class zad2 {
             return;
         }
         String filePath = args[0];
-        double[][] coordinates = readTSPFile(filePath);
-
-        if (coordinates == null) {
-            System.out.println("Nie udało się wczytać danych.");
+        // Opcjonalny drugi argument: liczba najbliższych sąsiadów, z których losowane są zamiany
+        int neighbours = 0;
+        if (args.length > 1) {
+            try {
+                neighbours = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                neighbours = 0;
+            }
+            if (neighbours < 1) {
+                System.out.println("Użycie: zad2 <plik.tsp> [liczba sąsiadów, co najmniej 1]");
+                return;
+            }
+        }
+        Instance instance;
+        try {
+            instance = TspLib.load(Path.of(filePath));
+        } catch (IOException e) {
+            System.out.println("Nie udało się wczytać danych: " + e.getMessage());
             return;
         }
 
-        int n = coordinates.length;
+        DistanceMatrix distances = DistanceMatrix.of(instance);
+        int[][] candidates = neighbours > 0 ? CandidateLists.nearest(instance, neighbours) : null;
+
+        int n = instance.dimension();
         double bestDistance = Double.MAX_VALUE;
         double totalDistance = 0;
         int totalImprovementSteps = 0;
 
         for (int i = 0; i < n; i++) {
             List<Integer> permutation = randomPermutation(n);
-            LocalSearchResult result = localSearch(permutation, coordinates, 10); // Przykładowa liczba sąsiadów
+            LocalSearchResult result = localSearch(permutation, distances, candidates, 10); // Przykładowa liczba sąsiadów
             totalDistance += result.distance;
             totalImprovementSteps += result.steps;
 
@@ -37,49 +60,27 @@ public class zad2 {
         System.out.println("Najlepsze znalezione rozwiązanie: " + bestDistance);
     }
 
-    private static double[][] readTSPFile(String filePath) {
-        List<double[]> coordList = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.startsWith("EOF")) {
-                    break;
-                }
-                if (line.matches("\\d+\\s+\\d+\\.?\\d*\\s+\\d+\\.?\\d*")) {
-                    String[] parts = line.trim().split("\\s+");
-                    double x = Double.parseDouble(parts[1]);
-                    double y = Double.parseDouble(parts[2]);
-                    coordList.add(new double[]{x, y});
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
-        }
-
-        return coordList.toArray(new double[0][]);
-    }
-
-    private static LocalSearchResult localSearch(List<Integer> path, double[][] coordinates, int numNeighbors) {
-        double currentDistance = calculateTotalDistance(path, coordinates);
+    private static LocalSearchResult localSearch(List<Integer> path, DistanceMatrix distances, int[][] candidates, int numNeighbors) {
+        double currentDistance = calculateTotalDistance(path, distances);
         int steps = 0;
         Random random = new Random();
+        int[] position = positions(path);
 
         for (int i = 0; i < path.size() - 1; i++) {
             boolean improved = false;
             for (int k = 0; k < numNeighbors; k++) {
-                int j = random.nextInt(path.size());
+                int j = candidates == null ? random.nextInt(path.size()) : candidatePosition(path, position, candidates, i, random);
                 if (j == i) continue;
 
-                Collections.swap(path, i, j);
-                double newDistance = calculateTotalDistance(path, coordinates);
+                swap(path, position, i, j);
+                double newDistance = calculateTotalDistance(path, distances);
                 if (newDistance < currentDistance) {
                     currentDistance = newDistance;
                     steps++;
                     improved = true;
                     break; // Break the inner loop as soon as improvement is found
                 }
-                Collections.swap(path, i, j); // Swap back
+                swap(path, position, i, j); // Swap back
             }
 
             if (!improved) {
@@ -99,17 +100,34 @@ public class zad2 {
         return permutation;
     }
 
-    private static double calculateTotalDistance(List<Integer> path, double[][] coordinates) {
+    private static double calculateTotalDistance(List<Integer> path, DistanceMatrix distances) {
         double totalDistance = 0;
         for (int i = 0; i < path.size() - 1; i++) {
-            totalDistance += distance(coordinates[path.get(i)], coordinates[path.get(i + 1)]);
+            totalDistance += distances.get(path.get(i), path.get(i + 1));
         }
-        totalDistance += distance(coordinates[path.get(path.size() - 1)], coordinates[path.get(0)]);
+        totalDistance += distances.get(path.get(path.size() - 1), path.get(0));
         return totalDistance;
     }
 
-    private static double distance(double[] city1, double[] city2) {
-        return Math.sqrt(Math.pow(city1[0] - city2[0], 2) + Math.pow(city1[1] - city2[1], 2));
+    private static int[] positions(List<Integer> path) {
+        int[] position = new int[path.size()];
+        for (int i = 0; i < path.size(); i++) {
+            position[path.get(i)] = i;
+        }
+        return position;
+    }
+
+    // Pozycja tuż za losowym bliskim sąsiadem miasta z pozycji i, zamiana stawia je obok siebie
+    private static int candidatePosition(List<Integer> path, int[] position, int[][] candidates, int i, Random random) {
+        int[] near = candidates[path.get(i)];
+        int j = position[near[random.nextInt(near.length)]] + 1;
+        return j == path.size() ? 0 : j;
+    }
+
+    private static void swap(List<Integer> path, int[] position, int i, int j) {
+        Collections.swap(path, i, j);
+        position[path.get(i)] = i;
+        position[path.get(j)] = j;
     }
 
     private static class LocalSearchResult {
@@ -1,107 +1,51 @@
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.random.RandomGenerator;
+
+import tsp.CandidateLists;
+import tsp.DistanceMatrix;
+import tsp.IncrementalTabuSearch;
+import tsp.Instance;
+import tsp.Rng;
+import tsp.TabuSearch;
+import tsp.TspLib;
 
 
 public class TabooSearchTSP {
-    private static final Random random = new Random();
 
-    // Metoda do obliczania odległości euklidesowej
-    private static double euclideanDistance(double[] city1, double[] city2) {
-        return Math.sqrt(Math.pow(city1[0] - city2[0], 2) + Math.pow(city1[1] - city2[1], 2));
-    }
 
-    // Metoda do obliczania całkowitej długości trasy
-    private static double totalDistance(int[] tour, double[][] coordinates) {
-        double distance = 0;
-        for (int i = 1; i < tour.length; i++) {
-            distance += euclideanDistance(coordinates[tour[i - 1]], coordinates[tour[i]]);
-        }
-        distance += euclideanDistance(coordinates[tour[tour.length - 1]], coordinates[tour[0]]);
-        return distance;
+    // Główna metoda algorytmu Tabu Search
+    public static int[] tabuSearch(DistanceMatrix distances, int tabuListSize, int maxIterationsWithoutImprovement, RandomGenerator random) {
+        return tabuSearch(distances, null, TabuSearch.Mode.POSITION, tabuListSize, maxIterationsWithoutImprovement, random);
     }
 
-
-    private static int[] invertSegment(int[] tour, int start, int end) {
-        int[] newTour = tour.clone();
-        while (start < end) {
-            int temp = newTour[start];
-            newTour[start] = newTour[end];
-            newTour[end] = temp;
-            start++;
-            end--;
+    // Z listami kandydatów (może być null) ruch z pozycji i łączy jej miasto z jednym z najbliższych sąsiadów.
+    // W trybie EDGE tabu są niedawno usunięte krawędzie, w trybie POSITION pary pozycji ostatnich ruchów.
+    public static int[] tabuSearch(DistanceMatrix distances, int[][] candidates, TabuSearch.Mode mode, int tabuListSize, int maxIterationsWithoutImprovement, RandomGenerator random) {
+        int numCities = distances.size();
+        int[] currentSolution = new int[numCities];
+        for (int i = 0; i < numCities; i++) {
+            currentSolution[i] = i;
         }
-        return newTour;
+        shuffleArray(currentSolution, random);
+        return new TabuSearch(distances, candidates, mode, tabuListSize).run(currentSolution, maxIterationsWithoutImprovement, random);
     }
 
-    // Główna metoda algorytmu Tabu Search
-    public static int[] tabuSearch(double[][] coordinates, int tabuListSize, int maxIterationsWithoutImprovement) {
-        int numCities = coordinates.length;
+    // Najlepszy ruch z list kandydatów w każdej iteracji; wartości ruchów są pamiętane
+    // i po ruchu przeliczane tylko dla miast, których dotyczyła zmiana (tabu na krawędziach)
+    public static int[] tabuSearchIncremental(DistanceMatrix distances, int[][] candidates, int tabuListSize, int maxIterationsWithoutImprovement, RandomGenerator random) {
+        int numCities = distances.size();
         int[] currentSolution = new int[numCities];
         for (int i = 0; i < numCities; i++) {
             currentSolution[i] = i;
         }
-        shuffleArray(currentSolution);
-
-        double currentDistance = totalDistance(currentSolution, coordinates);
-        int[] bestSolution = currentSolution.clone();
-        double bestDistance = currentDistance;
-
-        Set<Pair> tabuList = new HashSet<>();
-        int iterationsWithoutImprovement = 0;
-
-        while (iterationsWithoutImprovement < maxIterationsWithoutImprovement) {
-            Pair bestMove = null;
-            double bestMoveDistance = Double.MAX_VALUE;
-
-            for (int i = 0; i < numCities - 1; i++) {
-                int j = random.nextInt(numCities);
-                Pair move = new Pair(i, j);
-                if (i != j && !tabuList.contains(move)) {
-                    int[] neighbor = invertSegment(currentSolution, i, j);
-                    double neighborDistance = totalDistance(neighbor, coordinates);
-
-                    if (neighborDistance < bestMoveDistance) {
-                        bestMoveDistance = neighborDistance;
-                        bestMove = move;
-                    }
-                }
-            }
-
-            if (bestMove != null) {
-                applyMove(currentSolution, bestMove);
-                currentDistance = bestMoveDistance;
-
-                if (currentDistance < bestDistance) {
-                    bestSolution = currentSolution.clone();
-                    bestDistance = currentDistance;
-                    iterationsWithoutImprovement = 0;
-                } else {
-                    iterationsWithoutImprovement++;
-                }
-
-                tabuList.add(bestMove);
-                if (tabuList.size() > tabuListSize) {
-                    tabuList.remove(tabuList.iterator().next());
-                }
-            }
-        }
-
-        return bestSolution;
+        shuffleArray(currentSolution, random);
+        return new IncrementalTabuSearch(distances, candidates, tabuListSize).run(currentSolution, maxIterationsWithoutImprovement);
     }
 
-    private static void applyMove(int[] solution, Pair move) {
-        int start = move.getFirst();
-        int end = move.getSecond();
-        while (start < end) {
-            int temp = solution[start];
-            solution[start] = solution[end];
-            solution[end] = temp;
-            start++;
-            end--;
-        }
-    }
     // Pomocnicza metoda do mieszania tablicy
-    private static void shuffleArray(int[] array) {
+    private static void shuffleArray(int[] array, RandomGenerator random) {
         for (int i = array.length - 1; i > 0; i--) {
             int index = random.nextInt(i + 1);
             int a = array[index];
@@ -110,82 +54,24 @@ public class TabooSearchTSP {
         }
     }
 
-        // Method to read TSP data from a file
-    public static double[][] readTSPFile(String filename) throws IOException {
-        List<double[]> coordinatesList = new ArrayList<>();
-        boolean readingCoordinates = false;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.startsWith("NODE_COORD_SECTION")) {
-                    readingCoordinates = true;
-                    continue;
-                }
-                if (line.startsWith("EOF")) {
-                    break;
-                }
-                if (readingCoordinates) {
-                    String[] parts = line.trim().split("\\s+");
-                    double x = Double.parseDouble(parts[1]);
-                    double y = Double.parseDouble(parts[2]);
-                    coordinatesList.add(new double[]{x, y});
-                }
-            }
-        }
-
-        return coordinatesList.toArray(new double[0][]);
-    }
-    // Klasa do przechowywania par indeksów
-    static class Pair {
-        private final int first;
-        private final int second;
-
-        public Pair(int first, int second) {
-            this.first = first;
-            this.second = second;
-        }
-
-        public int getFirst() {
-            return first;
-        }
-
-        public int getSecond() {
-            return second;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            Pair pair = (Pair) o;
-            return first == pair.first && second == pair.second;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(first, second);
-        }
-    }
     // Metoda main
     public static void main(String[] args) {
         try {
             if (args.length < 1) {
-                System.out.println("Proszę podać ścieżkę do pliku .tsp jako argument.");
+                System.out.println("Proszę podać ścieżkę do pliku .tsp jako argument (opcjonalnie ziarno jako drugi).");
                 return;
             }
             String filePath = args[0];
-            double[][] coordinates = readTSPFile(filePath);
-    
-            if (coordinates == null) {
-                System.out.println("Nie udało się wczytać danych.");
-                return;
-            }
+            long seed = Rng.seed(args, 1);
+            System.out.println("Seed: " + seed);
+            Instance instance = TspLib.load(Path.of(filePath));
+
+            DistanceMatrix distances = DistanceMatrix.of(instance);
 
             double maxDistance = 0;
-            for (int i = 0; i < coordinates.length; i++) {
-                for (int j = i + 1; j < coordinates.length; j++) {
-                    double distance = euclideanDistance(coordinates[i], coordinates[j]);
+            for (int i = 0; i < instance.dimension(); i++) {
+                for (int j = i + 1; j < instance.dimension(); j++) {
+                    double distance = distances.get(i, j);
                     if (distance > maxDistance) {
                         maxDistance = distance;
                     }
@@ -198,18 +84,20 @@ public class TabooSearchTSP {
             double bestTourDistanceEver = Double.MAX_VALUE;
             double totalDistance = 0;
             int numberOfRuns = 20;
+            SplittableRandom[] streams = Rng.streams(seed, numberOfRuns); // Osobny strumień dla każdego uruchomienia
 
             // Parametry algorytmu
         int tabuListSize = 7;
-        int maxIterationsWithoutImprovement = (int) (0.1 * coordinates.length);
+        int maxIterationsWithoutImprovement = (int) (0.1 * instance.dimension());
+        int[][] candidates = CandidateLists.nearest(instance, CandidateLists.DEFAULT_SIZE);
 
 
 
 
         for (int run = 0; run < numberOfRuns; run++) {
 
-         int[] bestTour = tabuSearch(coordinates, tabuListSize, maxIterationsWithoutImprovement);
-         double bestTourDistance = totalDistance(bestTour, coordinates);
+         int[] bestTour = tabuSearchIncremental(distances, candidates, tabuListSize, maxIterationsWithoutImprovement, streams[run]);
+         double bestTourDistance = distances.tourLength(bestTour);
                 if (bestTourDistance < bestTourDistanceEver) {
                     bestTourDistanceEver = bestTourDistance;
                 }
@@ -1,6 +1,9 @@
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
 
+import tsp.TspLib;
+
 public class tabooParams {
     private static final Random random = new Random();
 
@@ -98,33 +101,6 @@ private static void shuffleArray(int[] array) {
     }
 }
 
-    // Method to read TSP data from a file
-public static double[][] readTSPFile(String filename) throws IOException {
-    List<double[]> coordinatesList = new ArrayList<>();
-    boolean readingCoordinates = false;
-
-    try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-        String line;
-        while ((line = br.readLine()) != null) {
-            if (line.startsWith("NODE_COORD_SECTION")) {
-                readingCoordinates = true;
-                continue;
-            }
-            if (line.startsWith("EOF")) {
-                break;
-            }
-            if (readingCoordinates) {
-                String[] parts = line.trim().split("\\s+");
-                double x = Double.parseDouble(parts[1]);
-                double y = Double.parseDouble(parts[2]);
-                coordinatesList.add(new double[]{x, y});
-            }
-        }
-    }
-
-    return coordinatesList.toArray(new double[0][]);
-}
-
 // Metoda do testowania różnych parametrów
 public static void optimizeParameters(double[][] coordinates) {
     double[] alphas = {0.05,0.1, 0.3}; // Różne wartości dla α
@@ -179,12 +155,7 @@ public static void optimizeParameters(double[][] coordinates) {
                 return;
             }
             String filePath = args[0];
-            double[][] coordinates = readTSPFile(filePath);
-    
-            if (coordinates == null) {
-                System.out.println("Nie udało się wczytać danych.");
-                return;
-            }
+            double[][] coordinates = TspLib.load(Path.of(filePath)).coordinates();
 
             double maxDistance = 0;
             for (int i = 0; i < coordinates.length; i++) {
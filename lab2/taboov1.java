@@ -1,91 +1,27 @@
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
 
+import tsp.DistanceMatrix;
+import tsp.Instance;
+import tsp.ParallelTabuSearch;
+import tsp.TabuSearch;
+import tsp.TspLib;
+
 public class TabooSearchTSP {
     private static final Random random = new Random();
 
-    // Metoda do obliczania odległości euklidesowej
-    private static double euclideanDistance(double[] city1, double[] city2) {
-        return Math.sqrt(Math.pow(city1[0] - city2[0], 2) + Math.pow(city1[1] - city2[1], 2));
-    }
-
-    // Metoda do obliczania całkowitej długości trasy
-    private static double totalDistance(int[] tour, double[][] coordinates) {
-        double distance = 0;
-        for (int i = 1; i < tour.length; i++) {
-            distance += euclideanDistance(coordinates[tour[i - 1]], coordinates[tour[i]]);
-        }
-        distance += euclideanDistance(coordinates[tour[tour.length - 1]], coordinates[tour[0]]);
-        return distance;
-    }
-
-
-    private static int[] invertSegment(int[] tour, int start, int end) {
-        int[] newTour = tour.clone();
-        while (start < end) {
-            int temp = newTour[start];
-            newTour[start] = newTour[end];
-            newTour[end] = temp;
-            start++;
-            end--;
-        }
-        return newTour;
-    }
-
-    // Główna metoda algorytmu Tabu Search
-    public static int[] tabuSearch(double[][] coordinates, int tabuListSize, int maxIterationsWithoutImprovement) {
-        int numCities = coordinates.length;
+    // Główna metoda algorytmu Tabu Search: pełne otoczenie 2-opt oceniane równolegle,
+    // przyrostowo (O(1) na ruch); tabu są niedawno usunięte krawędzie
+    public static int[] tabuSearch(DistanceMatrix distances, int tabuListSize, int maxIterationsWithoutImprovement) {
+        int numCities = distances.size();
         int[] currentSolution = new int[numCities];
         for (int i = 0; i < numCities; i++) {
             currentSolution[i] = i;
         }
         shuffleArray(currentSolution);
 
-        double currentDistance = totalDistance(currentSolution, coordinates);
-        int[] bestSolution = currentSolution.clone();
-        double bestDistance = currentDistance;
-
-        List<int[]> tabuList = new ArrayList<>();
-        int iterationsWithoutImprovement = 0;
-
-        while (iterationsWithoutImprovement < maxIterationsWithoutImprovement) {
-            int[] bestNeighbor = null;
-            double bestNeighborDistance = Double.MAX_VALUE;
-
-            // Przeszukiwanie pełnego otoczenia
-            for (int i = 0; i < numCities - 1; i++) {
-                for (int j = i + 1; j < numCities; j++) {
-                    int[] neighbor = invertSegment(currentSolution, i, j);
-                    double neighborDistance = totalDistance(neighbor, coordinates);
-
-                    if (!tabuList.contains(neighbor) && neighborDistance < bestNeighborDistance) {
-                        bestNeighbor = neighbor;
-                        bestNeighborDistance = neighborDistance;
-                    }
-                }
-            }
-
-            if (bestNeighbor != null) {
-                currentSolution = bestNeighbor;
-                currentDistance = bestNeighborDistance;
-
-                if (currentDistance < bestDistance) {
-                    bestSolution = currentSolution.clone();
-                    bestDistance = currentDistance;
-                    iterationsWithoutImprovement = 0;
-                } else {
-                    iterationsWithoutImprovement++;
-                }
-
-                // Aktualizacja listy tabu
-                tabuList.add(bestNeighbor);
-                if (tabuList.size() > tabuListSize) {
-                    tabuList.remove(0);
-                }
-            }
-        }
-
-        return bestSolution;
+        return new ParallelTabuSearch(distances, TabuSearch.Mode.EDGE, tabuListSize).run(currentSolution, maxIterationsWithoutImprovement);
     }
 
     // Pomocnicza metoda do mieszania tablicy
@@ -98,32 +34,6 @@ public class TabooSearchTSP {
         }
     }
 
-        // Method to read TSP data from a file
-    public static double[][] readTSPFile(String filename) throws IOException {
-        List<double[]> coordinatesList = new ArrayList<>();
-        boolean readingCoordinates = false;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.startsWith("NODE_COORD_SECTION")) {
-                    readingCoordinates = true;
-                    continue;
-                }
-                if (line.startsWith("EOF")) {
-                    break;
-                }
-                if (readingCoordinates) {
-                    String[] parts = line.trim().split("\\s+");
-                    double x = Double.parseDouble(parts[1]);
-                    double y = Double.parseDouble(parts[2]);
-                    coordinatesList.add(new double[]{x, y});
-                }
-            }
-        }
-
-        return coordinatesList.toArray(new double[0][]);
-    }
     // Metoda main
     public static void main(String[] args) {
         try {
@@ -132,17 +42,14 @@ public class TabooSearchTSP {
                 return;
             }
             String filePath = args[0];
-            double[][] coordinates = readTSPFile(filePath);
-    
-            if (coordinates == null) {
-                System.out.println("Nie udało się wczytać danych.");
-                return;
-            }
+            Instance instance = TspLib.load(Path.of(filePath));
+
+            DistanceMatrix distances = DistanceMatrix.of(instance);
 
             double maxDistance = 0;
-            for (int i = 0; i < coordinates.length; i++) {
-                for (int j = i + 1; j < coordinates.length; j++) {
-                    double distance = euclideanDistance(coordinates[i], coordinates[j]);
+            for (int i = 0; i < instance.dimension(); i++) {
+                for (int j = i + 1; j < instance.dimension(); j++) {
+                    double distance = distances.get(i, j);
                     if (distance > maxDistance) {
                         maxDistance = distance;
                     }
@@ -165,8 +72,8 @@ public class TabooSearchTSP {
 
         for (int run = 0; run < numberOfRuns; run++) {
 
-         int[] bestTour = tabuSearch(coordinates, tabuListSize, maxIterationsWithoutImprovement);
-         double bestTourDistance = totalDistance(bestTour, coordinates);
+         int[] bestTour = tabuSearch(distances, tabuListSize, maxIterationsWithoutImprovement);
+         double bestTourDistance = distances.tourLength(bestTour);
                 if (bestTourDistance < bestTourDistanceEver) {
                     bestTourDistanceEver = bestTourDistance;
                 }
@@ -1,6 +1,9 @@
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
 
+import tsp.TspLib;
+
 
 public class TabooSearchTSP {
     private static final Random random = new Random();
@@ -110,32 +113,6 @@ public class TabooSearchTSP {
         }
     }
 
-        // Method to read TSP data from a file
-    public static double[][] readTSPFile(String filename) throws IOException {
-        List<double[]> coordinatesList = new ArrayList<>();
-        boolean readingCoordinates = false;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.startsWith("NODE_COORD_SECTION")) {
-                    readingCoordinates = true;
-                    continue;
-                }
-                if (line.startsWith("EOF")) {
-                    break;
-                }
-                if (readingCoordinates) {
-                    String[] parts = line.trim().split("\\s+");
-                    double x = Double.parseDouble(parts[1]);
-                    double y = Double.parseDouble(parts[2]);
-                    coordinatesList.add(new double[]{x, y});
-                }
-            }
-        }
-
-        return coordinatesList.toArray(new double[0][]);
-    }
     // Klasa do przechowywania par indeksów
     static class Pair {
         private final int first;
@@ -175,12 +152,7 @@ public class TabooSearchTSP {
                 return;
             }
             String filePath = args[0];
-            double[][] coordinates = readTSPFile(filePath);
-    
-            if (coordinates == null) {
-                System.out.println("Nie udało się wczytać danych.");
-                return;
-            }
+            double[][] coordinates = TspLib.load(Path.of(filePath)).coordinates();
 
             double maxDistance = 0;
             for (int i = 0; i < coordinates.length; i++) {
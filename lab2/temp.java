@@ -1,6 +1,10 @@
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
 
+import tsp.DistanceMatrix;
+import tsp.TspLib;
+
 public class temp {
     private static final Random random = new Random();
 
@@ -90,32 +94,6 @@ public class temp {
         }
     }
 
-    // Method to read TSP data from a file
-    public static double[][] readTSPFile(String filename) throws IOException {
-        List<double[]> coordinatesList = new ArrayList<>();
-        boolean readingCoordinates = false;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.startsWith("NODE_COORD_SECTION")) {
-                    readingCoordinates = true;
-                    continue;
-                }
-                if (line.startsWith("EOF")) {
-                    break;
-                }
-                if (readingCoordinates) {
-                    String[] parts = line.trim().split("\\s+");
-                    double x = Double.parseDouble(parts[1]);
-                    double y = Double.parseDouble(parts[2]);
-                    coordinatesList.add(new double[]{x, y});
-                }
-            }
-        }
-
-        return coordinatesList.toArray(new double[0][]);
-    }
 
     // Metoda do obliczania maksymalnej odległości między dwoma punktami
     private static double calculateMaxDistance(double[][] coordinates) {
@@ -144,6 +122,7 @@ public static void testAlgorithm(double[][] coordinates) {
 
     double bestMinDistance = Double.MAX_VALUE;
     String bestParams = "";
+    DistanceMatrix distances = DistanceMatrix.of(coordinates); // Macierz odległości liczona raz dla wszystkich uruchomień
     
     for (double alpha : alphas) {
         for (double beta : betas) {
@@ -158,7 +137,7 @@ public static void testAlgorithm(double[][] coordinates) {
                     int numberOfRuns = 10;
 
                     for (int run = 0; run < numberOfRuns; run++) {
-                        int[] tour = SimulatedAnnealingTSP.simulatedAnnealing(coordinates, initialTemperature, beta, epochLength, maxIterationsWithoutImprovement);
+                        int[] tour = SimulatedAnnealingTSP.simulatedAnnealing(distances, initialTemperature, beta, epochLength, maxIterationsWithoutImprovement, random);
                         double distance = temp.totalDistance(tour, coordinates);
                         minDistance = Math.min(minDistance, distance);
                         totalDistance += distance;
@@ -187,12 +166,7 @@ public static void testAlgorithm(double[][] coordinates) {
                 return;
             }
             String filePath = args[0];
-            double[][] coordinates = readTSPFile(filePath);
-    
-            if (coordinates == null) {
-                System.out.println("Nie udało się wczytać danych.");
-                return;
-            }
+            double[][] coordinates = TspLib.load(Path.of(filePath)).coordinates();
 
             double maxDistance = 0;
             for (int i = 0; i < coordinates.length; i++) {
@@ -0,0 +1,70 @@
+package tsp;
+
+import java.util.SplittableRandom;
+
+/**
+ * Simulated annealing from a random tour (see SimulatedAnnealing). The start
+ * temperature is a fraction of the longest possible edge, taken as the
+ * diagonal of the bounding box; epoch length and patience scale with n.
+ * An evaluation is one proposed move.
+ */
+public final class AnnealingSolver implements TspSolver {
+
+    private final double alpha;
+    private final double coolingRate;
+    private final double epochFactor;
+    private final double patienceFactor;
+
+    // The parameters of the lab 2 driver
+    public AnnealingSolver() {
+        this(0.5, 0.95, 0.4, 0.3);
+    }
+
+    /**
+     * alpha: start temperature as a fraction of the longest edge;
+     * epochFactor: proposals per temperature step, times n;
+     * patienceFactor: epochs without improvement before stopping, times n.
+     */
+    public AnnealingSolver(double alpha, double coolingRate, double epochFactor, double patienceFactor) {
+        this.alpha = alpha;
+        this.coolingRate = coolingRate;
+        this.epochFactor = epochFactor;
+        this.patienceFactor = patienceFactor;
+    }
+
+    @Override
+    public String name() {
+        return "sa";
+    }
+
+    @Override
+    public Solution solve(Instance instance, Budget budget, long seed, ProgressListener listener) {
+        Budget.Meter meter = budget.start(listener);
+        DistanceMatrix distances = DistanceMatrix.of(instance);
+        SplittableRandom random = new SplittableRandom(seed);
+        int n = instance.dimension();
+        int[] start = Rng.randomTour(n, random);
+        if (n < 4) {
+            return Solution.of(start, distances, meter);
+        }
+        int[] best = new SimulatedAnnealing(distances).run(start, alpha * diagonal(instance), coolingRate,
+                Math.max(1, (int) (epochFactor * n)), Math.max(1, (int) (patienceFactor * n)), random, meter);
+        return Solution.of(best, distances, meter);
+    }
+
+    private static double diagonal(Instance instance) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double[] xs = instance.xs();
+        double[] ys = instance.ys();
+        for (int i = 0; i < xs.length; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        return DistanceMatrix.euclidean(minX, minY, maxX, maxY);
+    }
+}
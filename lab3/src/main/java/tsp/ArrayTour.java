@@ -0,0 +1,60 @@
+package tsp;
+
+/**
+ * Tour as a city array plus its inverse (the position of every city).
+ * next/prev/between are O(1); a flip reverses the shorter side in O(n).
+ */
+public final class ArrayTour implements Tour {
+
+    private final int[] order;
+    private final int[] position;
+
+    public ArrayTour(int[] order) {
+        this.order = new int[order.length];
+        this.position = new int[order.length];
+        load(order);
+    }
+
+    @Override
+    public int size() {
+        return order.length;
+    }
+
+    @Override
+    public int next(int city) {
+        int i = position[city] + 1;
+        return order[i == order.length ? 0 : i];
+    }
+
+    @Override
+    public int prev(int city) {
+        int i = position[city] - 1;
+        return order[i < 0 ? order.length - 1 : i];
+    }
+
+    @Override
+    public boolean between(int a, int b, int c) {
+        int pa = position[a];
+        int pb = position[b];
+        int pc = position[c];
+        return pa <= pc ? pa <= pb && pb <= pc : pb >= pa || pb <= pc;
+    }
+
+    @Override
+    public void flip(int a, int b) {
+        TwoOpt.reversePath(order, position, position[a], position[b]);
+    }
+
+    @Override
+    public void load(int[] tour) {
+        System.arraycopy(tour, 0, order, 0, order.length);
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+    }
+
+    @Override
+    public void copyTo(int[] tour) {
+        System.arraycopy(order, 0, tour, 0, order.length);
+    }
+}
@@ -0,0 +1,73 @@
+package tsp;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Best tour reported so far, readable from any thread at any time while a
+ * run goes on. Updates are lock-free and only ever replace the tour with a
+ * shorter one, so one holder may also collect the tours of several runs.
+ * An optional listener hears about each tour that gets in.
+ */
+public final class BestSoFar implements ProgressListener {
+
+    private final AtomicReference<Entry> best = new AtomicReference<>();
+    private final ProgressListener next;
+
+    public BestSoFar() {
+        this(ProgressListener.NONE);
+    }
+
+    public BestSoFar(ProgressListener next) {
+        this.next = next;
+    }
+
+    @Override
+    public void improved(int[] tour, double length, long evaluations) {
+        Entry current = best.get();
+        if (current != null && current.length <= length) {
+            return;
+        }
+        Entry entry = new Entry(tour.clone(), length, evaluations);
+        while (!best.compareAndSet(current, entry)) {
+            current = best.get();
+            if (current != null && current.length <= length) {
+                return;
+            }
+        }
+        next.improved(tour, length, evaluations);
+    }
+
+    public boolean isEmpty() {
+        return best.get() == null;
+    }
+
+    // Copy of the best tour, or null if none was reported yet
+    public int[] tour() {
+        Entry entry = best.get();
+        return entry == null ? null : entry.tour.clone();
+    }
+
+    // Positive infinity if no tour was reported yet
+    public double length() {
+        Entry entry = best.get();
+        return entry == null ? Double.POSITIVE_INFINITY : entry.length;
+    }
+
+    // Evaluations the run had spent when it found the best tour
+    public long evaluations() {
+        Entry entry = best.get();
+        return entry == null ? 0 : entry.evaluations;
+    }
+
+    private static final class Entry {
+        final int[] tour;
+        final double length;
+        final long evaluations;
+
+        Entry(int[] tour, double length, long evaluations) {
+            this.tour = tour;
+            this.length = length;
+            this.evaluations = evaluations;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package tsp;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stopping rule of a solver run: a wall-clock limit, a number of evaluations
+ * and a target tour length, each optional; the run ends at whichever comes
+ * first, or earlier when its cancellation token is cancelled or the thread
+ * that started it is interrupted. A Budget is immutable, start() gives the
+ * Meter that one run charges from its inner loops.
+ */
+public final class Budget {
+
+    private static final long NO_LIMIT = Long.MAX_VALUE;
+    private static final Budget UNLIMITED = new Budget(NO_LIMIT, NO_LIMIT, Double.NEGATIVE_INFINITY, null);
+
+    private final long timeNanos;
+    private final long evaluations;
+    private final double target;
+    // null when the run cannot be cancelled
+    private final CancellationToken cancellation;
+
+    private Budget(long timeNanos, long evaluations, double target, CancellationToken cancellation) {
+        this.timeNanos = timeNanos;
+        this.evaluations = evaluations;
+        this.target = target;
+        this.cancellation = cancellation;
+    }
+
+    public static Budget unlimited() {
+        return UNLIMITED;
+    }
+
+    public static Budget ofTime(Duration time) {
+        return UNLIMITED.withTime(time);
+    }
+
+    public static Budget ofEvaluations(long evaluations) {
+        return UNLIMITED.withEvaluations(evaluations);
+    }
+
+    public static Budget ofTarget(double length) {
+        return UNLIMITED.withTarget(length);
+    }
+
+    public Budget withTime(Duration time) {
+        if (time.isNegative()) {
+            throw new IllegalArgumentException("Negative time budget: " + time);
+        }
+        long nanos = time.compareTo(Duration.ofNanos(NO_LIMIT)) >= 0 ? NO_LIMIT : time.toNanos();
+        return new Budget(nanos, evaluations, target, cancellation);
+    }
+
+    public Budget withEvaluations(long evaluations) {
+        if (evaluations < 0) {
+            throw new IllegalArgumentException("Negative evaluation budget: " + evaluations);
+        }
+        return new Budget(timeNanos, evaluations, target, cancellation);
+    }
+
+    // The run stops once a tour of at most this length is found
+    public Budget withTarget(double length) {
+        return new Budget(timeNanos, evaluations, length, cancellation);
+    }
+
+    public Budget withCancellation(CancellationToken token) {
+        return new Budget(timeNanos, evaluations, target, token);
+    }
+
+    public boolean hasTimeLimit() {
+        return timeNanos != NO_LIMIT;
+    }
+
+    public Duration time() {
+        return hasTimeLimit() ? Duration.ofNanos(timeNanos) : null;
+    }
+
+    public boolean hasEvaluationLimit() {
+        return evaluations != NO_LIMIT;
+    }
+
+    public long evaluations() {
+        return evaluations;
+    }
+
+    public boolean hasTarget() {
+        return target != Double.NEGATIVE_INFINITY;
+    }
+
+    public double target() {
+        return target;
+    }
+
+    // null when the budget has no token
+    public CancellationToken cancellation() {
+        return cancellation;
+    }
+
+    // Starts the clock of one run; the calling thread's interrupt stops it too
+    public Meter start(ProgressListener listener) {
+        return new Meter(this, listener);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("Budget[");
+        if (hasTimeLimit()) {
+            text.append("time=").append(time()).append(' ');
+        }
+        if (hasEvaluationLimit()) {
+            text.append("evaluations=").append(evaluations).append(' ');
+        }
+        if (hasTarget()) {
+            text.append("target=").append(target).append(' ');
+        }
+        if (cancellation != null) {
+            text.append("cancellable ");
+        }
+        return text.toString().trim() + "]";
+    }
+
+    /**
+     * Spending side of a budget for one run; safe to share between the worker
+     * threads of that run. spend() and record() are meant for hot loops and
+     * look at the clock, the token and the interrupt flag of the thread that
+     * started the run only once per 2^CLOCK_SHIFT evaluations; exhausted()
+     * always looks and suits loops whose steps are expensive. All of them
+     * stay true once the budget is spent.
+     */
+    public static final class Meter {
+
+        // Evaluations charged between two polls in spend()
+        private static final int CLOCK_SHIFT = 12;
+
+        private final Budget budget;
+        private final ProgressListener listener;
+        private final long startNanos;
+        // Worker threads cannot see the interrupt of the thread that started the run
+        private final Thread owner;
+        private final AtomicLong evaluations = new AtomicLong();
+        private volatile boolean exhausted;
+        // Guarded by this
+        private double bestLength = Double.POSITIVE_INFINITY;
+
+        private Meter(Budget budget, ProgressListener listener) {
+            this.budget = budget;
+            this.listener = listener;
+            this.startNanos = System.nanoTime();
+            this.owner = Thread.currentThread();
+        }
+
+        // Charges count evaluations the caller is about to perform. Returns true, charging
+        // nothing, when the budget is spent or cannot cover them; the caller must then skip
+        // them. So a limit of N lets exactly N evaluations run.
+        public boolean spend(long count) {
+            if (exhausted) {
+                return true;
+            }
+            long before = evaluations.getAndAdd(count);
+            long after = before + count;
+            if (after > budget.evaluations) {
+                evaluations.getAndAdd(-count);
+                exhausted = true;
+                return true;
+            }
+            if (after == budget.evaluations) {
+                // These are the last ones; later calls are refused
+                exhausted = true;
+            } else if ((before >>> CLOCK_SHIFT) != (after >>> CLOCK_SHIFT)) {
+                poll();
+            }
+            return false;
+        }
+
+        // Charges count evaluations already performed (engines that score in batches);
+        // returns whether the budget is now spent
+        public boolean record(long count) {
+            long before = evaluations.getAndAdd(count);
+            long after = before + count;
+            if (after >= budget.evaluations) {
+                exhausted = true;
+            } else if ((before >>> CLOCK_SHIFT) != (after >>> CLOCK_SHIFT)) {
+                poll();
+            }
+            return exhausted;
+        }
+
+        public boolean exhausted() {
+            if (!exhausted) {
+                poll();
+            }
+            return exhausted;
+        }
+
+        // Reports a tour; the listener hears about it if it beats the run's best so far
+        // by more than rounding (the same tour summed from another start differs in the last bits)
+        public synchronized void improved(int[] tour, double length) {
+            if (length < bestLength - 1e-9) {
+                bestLength = length;
+                listener.improved(tour, length, evaluations.get());
+                if (length <= budget.target) {
+                    exhausted = true;
+                }
+            }
+        }
+
+        // Ends the run as if the budget were spent
+        void stop() {
+            exhausted = true;
+        }
+
+        public long evaluations() {
+            return evaluations.get();
+        }
+
+        public long elapsedNanos() {
+            return System.nanoTime() - startNanos;
+        }
+
+        public synchronized double bestLength() {
+            return bestLength;
+        }
+
+        public Budget budget() {
+            return budget;
+        }
+
+        private void poll() {
+            if ((budget.hasTimeLimit() && System.nanoTime() - startNanos >= budget.timeNanos)
+                    || (budget.cancellation != null && budget.cancellation.isCancelled())
+                    || owner.isInterrupted()) {
+                exhausted = true;
+            }
+        }
+    }
+}
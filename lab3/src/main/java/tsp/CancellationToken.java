@@ -0,0 +1,19 @@
+package tsp;
+
+/**
+ * Lets another thread stop a solver run: a run whose Budget carries the
+ * token ends at its next budget check after cancel(), keeping the best tour
+ * found so far. Once cancelled, a token stays cancelled.
+ */
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
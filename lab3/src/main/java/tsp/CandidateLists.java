@@ -0,0 +1,59 @@
+package tsp;
+
+/**
+ * Candidate neighbour lists: for every city a short list of nearby cities
+ * (closest first) that local searches scan instead of the whole tour.
+ */
+public final class CandidateLists {
+
+    public static final int DEFAULT_SIZE = 10;
+
+    private CandidateLists() {
+    }
+
+    // k nearest neighbours of every city
+    public static int[][] nearest(double[][] coordinates, int k) {
+        return nearest(new KdTree(coordinates), k);
+    }
+
+    // Served from the instance's precomputed lists when they are long enough
+    public static int[][] nearest(Instance instance, int k) {
+        int n = instance.dimension();
+        int size = Math.min(k, n - 1);
+        if (instance.neighbourCount() > 0 && instance.neighbourCount() >= size) {
+            int[][] lists = new int[n][];
+            for (int city = 0; city < n; city++) {
+                lists[city] = instance.neighbours(city, size);
+            }
+            return lists;
+        }
+        return nearest(new KdTree(instance.xs(), instance.ys()), k);
+    }
+
+    // k neighbours balanced over the four quadrants around every city, which
+    // keeps some far-side candidates on clustered instances
+    public static int[][] quadrant(double[][] coordinates, int k) {
+        return quadrant(new KdTree(coordinates), k);
+    }
+
+    public static int[][] quadrant(Instance instance, int k) {
+        return quadrant(new KdTree(instance.xs(), instance.ys()), k);
+    }
+
+    private static int[][] nearest(KdTree tree, int k) {
+        int[][] lists = new int[tree.size()][];
+        for (int city = 0; city < lists.length; city++) {
+            lists[city] = tree.nearest(city, k);
+        }
+        return lists;
+    }
+
+    private static int[][] quadrant(KdTree tree, int k) {
+        int perQuadrant = Math.max(1, k / 4);
+        int[][] lists = new int[tree.size()][];
+        for (int city = 0; city < lists.length; city++) {
+            lists[city] = tree.quadrant(city, perQuadrant, k);
+        }
+        return lists;
+    }
+}
@@ -0,0 +1,227 @@
+package tsp;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Permutation crossover operators used by the genetic algorithms.
+ * An instance holds the scratch buffers for tours of one size and is meant
+ * to be owned by a single thread; every operator writes into a caller
+ * supplied child array and runs in O(n) without allocating.
+ */
+public final class Crossover {
+
+    // Upper bound on distinct neighbours of a city in the union of two tours
+    private static final int MAX_EDGES = 4;
+
+    private final int n;
+    // used[x] == stamp marks x (a city or a position) for the current call
+    private final int[] used;
+    private int stamp;
+    private final int[] position;
+    private final int[] edges;
+    private final int[] degree;
+    private final int[] unvisited;
+    private final int[] unvisitedIndex;
+
+    public Crossover(int n) {
+        this.n = n;
+        this.used = new int[n];
+        this.position = new int[n];
+        this.edges = new int[MAX_EDGES * n];
+        this.degree = new int[n];
+        this.unvisited = new int[n];
+        this.unvisitedIndex = new int[n];
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Copies parent1[start..end] and takes every other position from parent2
+     * unless that city is already in the segment; the remaining gaps are filled
+     * with the missing cities in parent2 order.
+     */
+    public void pmx(int[] parent1, int[] parent2, int[] child, RandomGenerator random) {
+        int start = random.nextInt(n);
+        int end = random.nextInt(n - start) + start;
+        int stamp = nextStamp();
+
+        for (int i = start; i <= end; i++) {
+            child[i] = parent1[i];
+            used[parent1[i]] = stamp;
+        }
+
+        // Remaining positions from the second parent where possible, -1 marks a gap
+        for (int i = 0; i < n; i++) {
+            if (i == start) {
+                i = end;
+                continue;
+            }
+            int city = parent2[i];
+            if (used[city] == stamp) {
+                child[i] = -1;
+            } else {
+                child[i] = city;
+                used[city] = stamp;
+            }
+        }
+
+        // Repair: gaps left to right get the missing cities in second parent order
+        int next = 0;
+        for (int i = 0; i < n; i++) {
+            if (child[i] == -1) {
+                while (used[parent2[next]] == stamp) {
+                    next++;
+                }
+                child[i] = parent2[next];
+                used[parent2[next]] = stamp;
+            }
+        }
+    }
+
+    // Keeps parent1[start..end] in place and fills the rest left to right with
+    // the other cities in parent2 order
+    public void ox(int[] parent1, int[] parent2, int[] child, RandomGenerator random) {
+        int start = random.nextInt(n);
+        int end = random.nextInt(n);
+        if (start > end) {
+            int temp = start;
+            start = end;
+            end = temp;
+        }
+        int stamp = nextStamp();
+
+        for (int i = start; i <= end; i++) {
+            child[i] = parent1[i];
+            used[parent1[i]] = stamp;
+        }
+
+        int currentIndex = 0;
+        for (int i = 0; i < n; i++) {
+            int city = parent2[i];
+            if (used[city] != stamp) {
+                if (currentIndex == start) {
+                    currentIndex = end + 1;
+                }
+                child[currentIndex++] = city;
+            }
+        }
+    }
+
+    // Cycle crossover: the cycle through a random position comes from parent1,
+    // every other position from parent2, so each city keeps a parent's position
+    public void cx(int[] parent1, int[] parent2, int[] child, RandomGenerator random) {
+        for (int i = 0; i < n; i++) {
+            position[parent1[i]] = i;
+        }
+        int stamp = nextStamp();
+
+        int first = random.nextInt(n);
+        int i = first;
+        do {
+            child[i] = parent1[i];
+            used[i] = stamp;
+            i = position[parent2[i]];
+        } while (i != first);
+
+        for (i = 0; i < n; i++) {
+            if (used[i] != stamp) {
+                child[i] = parent2[i];
+            }
+        }
+    }
+
+    /**
+     * Edge recombination: starting from a random city, always move to the
+     * neighbour (in either parent) with the fewest unused neighbours left,
+     * and to a random unvisited city when no neighbour is left.
+     */
+    public void erx(int[] parent1, int[] parent2, int[] child, RandomGenerator random) {
+        for (int city = 0; city < n; city++) {
+            degree[city] = 0;
+            unvisited[city] = city;
+            unvisitedIndex[city] = city;
+        }
+        addEdges(parent1);
+        addEdges(parent2);
+        int remaining = n;
+
+        int current = random.nextInt(n);
+        for (int k = 0; k < n; k++) {
+            child[k] = current;
+            remaining = visit(current, remaining);
+
+            int next = -1;
+            int nextDegree = Integer.MAX_VALUE;
+            int ties = 0;
+            int base = current * MAX_EDGES;
+            for (int e = 0; e < degree[current]; e++) {
+                int candidate = edges[base + e];
+                int d = degree[candidate];
+                if (d < nextDegree) {
+                    next = candidate;
+                    nextDegree = d;
+                    ties = 1;
+                } else if (d == nextDegree && random.nextInt(++ties) == 0) {
+                    next = candidate;
+                }
+            }
+            if (next < 0 && remaining > 0) {
+                next = unvisited[random.nextInt(remaining)];
+            }
+            current = next;
+        }
+    }
+
+    private void addEdges(int[] tour) {
+        int previous = tour[n - 1];
+        for (int city : tour) {
+            addEdge(previous, city);
+            addEdge(city, previous);
+            previous = city;
+        }
+    }
+
+    private void addEdge(int from, int to) {
+        int base = from * MAX_EDGES;
+        for (int e = 0; e < degree[from]; e++) {
+            if (edges[base + e] == to) {
+                return;
+            }
+        }
+        edges[base + degree[from]++] = to;
+    }
+
+    // Drops the city from the unvisited set and from its neighbours' edge lists
+    private int visit(int city, int remaining) {
+        int index = unvisitedIndex[city];
+        int last = unvisited[--remaining];
+        unvisited[index] = last;
+        unvisitedIndex[last] = index;
+
+        int base = city * MAX_EDGES;
+        for (int e = 0; e < degree[city]; e++) {
+            int neighbour = edges[base + e];
+            int neighbourBase = neighbour * MAX_EDGES;
+            int count = degree[neighbour];
+            for (int f = 0; f < count; f++) {
+                if (edges[neighbourBase + f] == city) {
+                    edges[neighbourBase + f] = edges[neighbourBase + count - 1];
+                    degree[neighbour] = count - 1;
+                    break;
+                }
+            }
+        }
+        return remaining;
+    }
+
+    private int nextStamp() {
+        if (++stamp == 0) {
+            Arrays.fill(used, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+}
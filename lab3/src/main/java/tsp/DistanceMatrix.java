@@ -0,0 +1,176 @@
+package tsp;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Euclidean distances between all pairs of cities, computed once per instance.
+ * Only the lower triangle is stored (row i holds d(i, 0..i-1)), either as
+ * double or float. With lazy fill a row is computed the first time it is read,
+ * which is safe to share between island threads.
+ */
+public final class DistanceMatrix {
+
+    public enum Storage {
+        DOUBLE(Double.BYTES),
+        FLOAT(Float.BYTES),
+        // No table at all, every lookup is computed from coordinates
+        NONE(0);
+
+        private final int bytesPerEntry;
+
+        Storage(int bytesPerEntry) {
+            this.bytesPerEntry = bytesPerEntry;
+        }
+    }
+
+    // Default budget for the table; above it of() falls back to float, then to NONE
+    public static final long DEFAULT_BUDGET_BYTES = 512L << 20;
+
+    private static final VarHandle FILLED = MethodHandles.arrayElementVarHandle(boolean[].class);
+
+    private final int n;
+    private final double[] xs;
+    private final double[] ys;
+    private final Storage storage;
+    private final int[] rowStart;
+    private final double[] doubles;
+    private final float[] floats;
+    private final boolean[] filled;
+
+    public DistanceMatrix(double[][] coordinates, Storage storage, boolean lazy) {
+        this(column(coordinates, 0), column(coordinates, 1), storage, lazy);
+    }
+
+    // The coordinate arrays are kept, not copied
+    public DistanceMatrix(double[] xs, double[] ys, Storage storage, boolean lazy) {
+        this.n = xs.length;
+        this.xs = xs;
+        this.ys = ys;
+        this.storage = storage;
+        long entries = entries(n);
+        if (storage != Storage.NONE && entries > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many cities for a " + storage + " distance table: " + n);
+        }
+        this.rowStart = storage == Storage.NONE ? null : new int[n];
+        if (rowStart != null) {
+            for (int i = 1; i < n; i++) {
+                rowStart[i] = rowStart[i - 1] + (i - 1);
+            }
+        }
+        this.doubles = storage == Storage.DOUBLE ? new double[(int) entries] : null;
+        this.floats = storage == Storage.FLOAT ? new float[(int) entries] : null;
+        this.filled = lazy && storage != Storage.NONE ? new boolean[n] : null;
+        if (!lazy && storage != Storage.NONE) {
+            for (int i = 1; i < n; i++) {
+                fillRow(i);
+            }
+        }
+    }
+
+    // Picks the densest storage that fits the default memory budget, filled eagerly
+    public static DistanceMatrix of(double[][] coordinates) {
+        return new DistanceMatrix(coordinates, choose(coordinates.length, DEFAULT_BUDGET_BYTES), false);
+    }
+
+    public static DistanceMatrix of(Instance instance) {
+        return new DistanceMatrix(instance.xs(), instance.ys(), choose(instance.dimension(), DEFAULT_BUDGET_BYTES), false);
+    }
+
+    // One coordinate of every city
+    static double[] column(double[][] coordinates, int axis) {
+        double[] values = new double[coordinates.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = coordinates[i][axis];
+        }
+        return values;
+    }
+
+    public static Storage choose(int n, long budgetBytes) {
+        if (footprint(n, Storage.DOUBLE) <= budgetBytes && entries(n) <= Integer.MAX_VALUE - 8) {
+            return Storage.DOUBLE;
+        }
+        if (footprint(n, Storage.FLOAT) <= budgetBytes && entries(n) <= Integer.MAX_VALUE - 8) {
+            return Storage.FLOAT;
+        }
+        return Storage.NONE;
+    }
+
+    // Approximate heap usage of a table for n cities (coordinates included)
+    public static long footprint(int n, Storage storage) {
+        long bytes = 2L * Double.BYTES * n;
+        if (storage != Storage.NONE) {
+            bytes += entries(n) * storage.bytesPerEntry + (long) Integer.BYTES * n;
+        }
+        return bytes;
+    }
+
+    private static long entries(int n) {
+        return (long) n * (n - 1) / 2;
+    }
+
+    public static double euclidean(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public Storage storage() {
+        return storage;
+    }
+
+    public long memoryFootprint() {
+        long bytes = footprint(n, storage);
+        if (filled != null) {
+            bytes += n;
+        }
+        return bytes;
+    }
+
+    public double get(int i, int j) {
+        if (i == j) {
+            return 0;
+        }
+        int row = Math.max(i, j);
+        int col = Math.min(i, j);
+        if (storage == Storage.NONE) {
+            return euclidean(xs[row], ys[row], xs[col], ys[col]);
+        }
+        if (filled != null && !(boolean) FILLED.getAcquire(filled, row)) {
+            fillRow(row);
+            FILLED.setRelease(filled, row, true);
+        }
+        int index = rowStart[row] + col;
+        return doubles != null ? doubles[index] : floats[index];
+    }
+
+    // Length of the closed tour
+    public double tourLength(int[] tour) {
+        double length = 0;
+        for (int i = 1; i < tour.length; i++) {
+            length += get(tour[i - 1], tour[i]);
+        }
+        length += get(tour[tour.length - 1], tour[0]);
+        return length;
+    }
+
+    // Racing threads may fill the same row twice, they write identical values
+    private void fillRow(int row) {
+        int start = rowStart[row];
+        double x = xs[row];
+        double y = ys[row];
+        if (doubles != null) {
+            for (int col = 0; col < row; col++) {
+                doubles[start + col] = euclidean(x, y, xs[col], ys[col]);
+            }
+        } else {
+            for (int col = 0; col < row; col++) {
+                floats[start + col] = (float) euclidean(x, y, xs[col], ys[col]);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package tsp;
+
+import java.util.Arrays;
+
+/**
+ * Tabu memory on edges: for every unordered city pair the iteration until
+ * which adding that edge back is forbidden. Stored as a lower-triangular int
+ * table, so checking a move costs one array read per added edge.
+ */
+public final class EdgeTabu {
+
+    private final int[] rowStart;
+    private final int[] tabuUntil;
+
+    public EdgeTabu(int n) {
+        long entries = (long) n * (n - 1) / 2;
+        if (entries > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many cities for an edge tabu table: " + n);
+        }
+        this.rowStart = new int[n];
+        for (int i = 1; i < n; i++) {
+            rowStart[i] = rowStart[i - 1] + (i - 1);
+        }
+        this.tabuUntil = new int[(int) entries];
+    }
+
+    // Whether the edge (a, b) may not be added at the given iteration
+    public boolean isTabu(int a, int b, int iteration) {
+        return tabuUntil[index(a, b)] > iteration;
+    }
+
+    // Forbids adding (a, b) back before the given iteration
+    public void forbid(int a, int b, int until) {
+        tabuUntil[index(a, b)] = until;
+    }
+
+    public void clear() {
+        Arrays.fill(tabuUntil, 0);
+    }
+
+    private int index(int a, int b) {
+        return a > b ? rowStart[a] + b : rowStart[b] + a;
+    }
+}
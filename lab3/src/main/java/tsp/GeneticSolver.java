@@ -0,0 +1,72 @@
+package tsp;
+
+import java.util.SplittableRandom;
+
+/**
+ * Island-model GA run synchronously (so a seed fixes the result). In the
+ * memetic variant every child is improved by Lin-Kernighan before it joins
+ * the next generation. An evaluation is one child.
+ */
+public final class GeneticSolver implements TspSolver {
+
+    private final String name;
+    private final int populationSize;
+    private final int islands;
+    private final int epochs;
+    private final int generationsPerEpoch;
+    private final double mutationRate;
+    private final Migration.Topology topology;
+    private final int migrantCount;
+    private final boolean memetic;
+
+    // populationSize is the total over all islands
+    public GeneticSolver(String name, int populationSize, int islands, int epochs, int generationsPerEpoch,
+                         double mutationRate, Migration.Topology topology, int migrantCount, boolean memetic) {
+        this.name = name;
+        this.populationSize = populationSize;
+        this.islands = islands;
+        this.epochs = epochs;
+        this.generationsPerEpoch = generationsPerEpoch;
+        this.mutationRate = mutationRate;
+        this.topology = topology;
+        this.migrantCount = migrantCount;
+        this.memetic = memetic;
+    }
+
+    // The parameters of GeneticAlgorithmTSP
+    public static GeneticSolver plain() {
+        return new GeneticSolver("ga", 1000, 8, 10, 1000, 0.5, Migration.Topology.RING, 1, false);
+    }
+
+    // The parameters of AMTSP
+    public static GeneticSolver memetic() {
+        return new GeneticSolver("memetic", 30, 30, 5, 10, 0.5, Migration.Topology.RING, 1, true);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Solution solve(Instance instance, Budget budget, long seed, ProgressListener listener) {
+        Budget.Meter meter = budget.start(listener);
+        DistanceMatrix distances = DistanceMatrix.of(instance);
+        int n = instance.dimension();
+        if (n < 4) {
+            return Solution.of(Rng.randomTour(n, new SplittableRandom(seed)), distances, meter);
+        }
+        int[][] neighbours = memetic ? CandidateLists.nearest(instance, CandidateLists.DEFAULT_SIZE) : null;
+        SplittableRandom[] streams = Rng.streams(seed, islands);
+        Island[] population = new Island[islands];
+        for (int i = 0; i < islands; i++) {
+            LocalOptimizer localSearch = memetic ? new LinKernighanSearch(distances, neighbours) : null;
+            // As in the lab drivers each island gets populationSize / islands, so memetic runs AMTSP's 1 per island
+            population[i] = new Island(distances, Math.max(1, populationSize / islands), mutationRate, localSearch, streams[i]);
+            meter.improved(population[i].best(), population[i].bestLength());
+        }
+        IslandModel model = new IslandModel(population, new Migration(islands, topology, generationsPerEpoch, migrantCount));
+        model.runSynchronous(epochs, meter);
+        return Solution.of(model.best(), distances, meter);
+    }
+}
@@ -0,0 +1,443 @@
+package tsp;
+
+import java.util.Arrays;
+
+/**
+ * Best-improvement tabu search over candidate-list 2-opt moves with edge
+ * tabu, where move values are cached instead of rescored every iteration.
+ * For every city the best move that adds an edge to one of its candidates is
+ * kept in two indexed heaps: one over non-tabu moves and one over all moves
+ * (for aspiration). After a move only cities whose tour neighbours or
+ * orientation changed, the cities listing them as candidates, and the
+ * endpoints of edges whose tabu just expired are rescored.
+ */
+public final class IncrementalTabuSearch {
+
+    // A move of city a towards candidate b either adds (a, b) and (succ a, succ b)
+    // or (a, b) and (pred a, pred b)
+    private static final int SUCC = 0;
+    private static final int PRED = 1;
+
+    private final DistanceMatrix distances;
+    private final int[][] candidates;
+    private final int tenure;
+    // holders[holderStart[x] .. holderStart[x + 1]) are the cities with x as a candidate
+    private final int[] holderStart;
+    private final int[] holders;
+    private long movesEvaluated;
+
+    public IncrementalTabuSearch(DistanceMatrix distances, int[][] candidates, int tenure) {
+        this.distances = distances;
+        this.candidates = candidates;
+        this.tenure = tenure;
+        int n = candidates.length;
+        this.holderStart = new int[n + 1];
+        for (int[] near : candidates) {
+            for (int b : near) {
+                holderStart[b + 1]++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            holderStart[i + 1] += holderStart[i];
+        }
+        this.holders = new int[holderStart[n]];
+        int[] fill = holderStart.clone();
+        for (int a = 0; a < n; a++) {
+            for (int b : candidates[a]) {
+                holders[fill[b]++] = a;
+            }
+        }
+    }
+
+    // Number of candidate moves scored so far, over all runs
+    public long movesEvaluated() {
+        return movesEvaluated;
+    }
+
+    // Searches from the given start tour (left untouched) and returns the best tour seen
+    public int[] run(int[] start, int maxIterationsWithoutImprovement) {
+        return run(start, maxIterationsWithoutImprovement, null);
+    }
+
+    // As above, charging scored moves to the meter (may be null) and stopping as soon as it is spent
+    public int[] run(int[] start, int maxIterationsWithoutImprovement, Budget.Meter meter) {
+        long charged = movesEvaluated;
+        return new Run(start).search(maxIterationsWithoutImprovement, meter, charged);
+    }
+
+    private final class Run {
+        private final int n;
+        private final int[] tour;
+        private final int[] position;
+        private final EdgeTabu tabu;
+        private final IndexedHeap free;
+        private final IndexedHeap any;
+        // Best non-tabu and best overall move of each city: candidate and direction
+        private final int[] freeTarget;
+        private final byte[] freeDirection;
+        private final int[] anyTarget;
+        private final byte[] anyDirection;
+        // Cities to rescore before the next pick
+        private final int[] dirty;
+        private final int[] dirtyStamp;
+        private int dirtyCount;
+        private int stamp;
+        // Endpoints of the edges forbidden in each of the last tenure + 1 iterations
+        private final int[] expiring;
+        private int iteration;
+        // Improving moves skipped because they were tabu, for Metrics
+        private long tabuHits;
+
+        Run(int[] start) {
+            this.n = start.length;
+            this.tour = start.clone();
+            this.position = new int[n];
+            for (int i = 0; i < n; i++) {
+                position[tour[i]] = i;
+            }
+            this.tabu = new EdgeTabu(n);
+            this.free = new IndexedHeap(n);
+            this.any = new IndexedHeap(n);
+            this.freeTarget = new int[n];
+            this.freeDirection = new byte[n];
+            this.anyTarget = new int[n];
+            this.anyDirection = new byte[n];
+            this.dirty = new int[n];
+            this.dirtyStamp = new int[n];
+            this.expiring = new int[4 * (tenure + 1)];
+            Arrays.fill(expiring, -1);
+            for (int a = 0; a < n; a++) {
+                rescore(a);
+            }
+        }
+
+        // charged: moves scored before this run, so that its initial scoring is charged too
+        int[] search(int maxIterationsWithoutImprovement, Budget.Meter meter, long charged) {
+            double currentLength = distances.tourLength(tour);
+            int[] best = tour.clone();
+            double bestLength = currentLength;
+            int iterationsWithoutImprovement = 0;
+            if (meter != null) {
+                meter.improved(best, bestLength);
+            }
+            // Scored moves already added to Metrics
+            long reported = charged;
+
+            while (iterationsWithoutImprovement < maxIterationsWithoutImprovement) {
+                if (meter != null) {
+                    if (meter.record(movesEvaluated - charged)) {
+                        break;
+                    }
+                    charged = movesEvaluated;
+                }
+                iteration++;
+                expire();
+                flushDirty();
+                if (Metrics.ENABLED) {
+                    Metrics.Counter.EVALUATIONS.add(movesEvaluated - reported);
+                    Metrics.Counter.TABU_HITS.add(tabuHits);
+                    reported = movesEvaluated;
+                    tabuHits = 0;
+                }
+
+                int a;
+                int b;
+                int direction;
+                double delta;
+                if (currentLength + any.topKey() < bestLength - 1e-9) {
+                    // Aspiration: the best move overall gives a new best tour, tabu or not
+                    a = any.top();
+                    b = anyTarget[a];
+                    direction = anyDirection[a];
+                    delta = any.topKey();
+                } else if (free.topKey() < Double.POSITIVE_INFINITY) {
+                    a = free.top();
+                    b = freeTarget[a];
+                    direction = freeDirection[a];
+                    delta = free.topKey();
+                } else {
+                    iterationsWithoutImprovement++;
+                    continue;
+                }
+
+                apply(a, b, direction);
+                currentLength += delta;
+                // The cached delta must be the applied move's; checked with -ea only, it costs O(n)
+                assert Math.abs(currentLength - distances.tourLength(tour)) <= 1e-6 * Math.max(1, currentLength)
+                        : "running length " + currentLength + " drifted from " + distances.tourLength(tour);
+                if (Metrics.ENABLED) {
+                    Metrics.Counter.ACCEPTED_MOVES.increment();
+                    if (delta < 0) {
+                        Metrics.Counter.IMPROVING_MOVES.increment();
+                    }
+                }
+                if (currentLength < bestLength - 1e-9) {
+                    System.arraycopy(tour, 0, best, 0, n);
+                    bestLength = currentLength;
+                    iterationsWithoutImprovement = 0;
+                    if (meter != null) {
+                        meter.improved(best, bestLength);
+                    }
+                } else {
+                    iterationsWithoutImprovement++;
+                }
+            }
+            if (Metrics.ENABLED) {
+                Metrics.Counter.EVALUATIONS.add(movesEvaluated - reported);
+                Metrics.Counter.TABU_HITS.add(tabuHits);
+                tabuHits = 0;
+            }
+            return best;
+        }
+
+        private int succ(int city) {
+            int i = position[city] + 1;
+            return tour[i == n ? 0 : i];
+        }
+
+        private int pred(int city) {
+            int i = position[city] - 1;
+            return tour[i < 0 ? n - 1 : i];
+        }
+
+        // Recomputes both cached moves of city a and its heap entries
+        private void rescore(int a) {
+            double bestFree = Double.POSITIVE_INFINITY;
+            double bestAny = Double.POSITIVE_INFINITY;
+            int sa = succ(a);
+            int pa = pred(a);
+            for (int b : candidates[a]) {
+                int sb = succ(b);
+                int pb = pred(b);
+                double ab = distances.get(a, b);
+                if (b != sa && sb != a) {
+                    movesEvaluated++;
+                    double delta = ab + distances.get(sa, sb) - distances.get(a, sa) - distances.get(b, sb);
+                    if (delta < bestAny) {
+                        bestAny = delta;
+                        anyTarget[a] = b;
+                        anyDirection[a] = SUCC;
+                    }
+                    if (delta < bestFree) {
+                        if (!tabu.isTabu(a, b, iteration) && !tabu.isTabu(sa, sb, iteration)) {
+                            bestFree = delta;
+                            freeTarget[a] = b;
+                            freeDirection[a] = SUCC;
+                        } else {
+                            tabuHits++;
+                        }
+                    }
+                }
+                if (b != pa && pb != a) {
+                    movesEvaluated++;
+                    double delta = ab + distances.get(pa, pb) - distances.get(a, pa) - distances.get(b, pb);
+                    if (delta < bestAny) {
+                        bestAny = delta;
+                        anyTarget[a] = b;
+                        anyDirection[a] = PRED;
+                    }
+                    if (delta < bestFree) {
+                        if (!tabu.isTabu(a, b, iteration) && !tabu.isTabu(pa, pb, iteration)) {
+                            bestFree = delta;
+                            freeTarget[a] = b;
+                            freeDirection[a] = PRED;
+                        } else {
+                            tabuHits++;
+                        }
+                    }
+                }
+            }
+            free.update(a, bestFree);
+            any.update(a, bestAny);
+        }
+
+        private void apply(int a, int b, int direction) {
+            int i;
+            int j;
+            int other;
+            int otherB;
+            if (direction == SUCC) {
+                other = succ(a);
+                otherB = succ(b);
+                // a, succ a .. b, succ b  ->  a, b .. succ a, succ b
+                i = position[other];
+                j = position[b];
+            } else {
+                other = pred(a);
+                otherB = pred(b);
+                // pred a, a .. pred b, b  ->  pred a, pred b .. a, b
+                i = position[a];
+                j = position[otherB];
+            }
+            int until = iteration + tenure + 1;
+            tabu.forbid(a, other, until);
+            tabu.forbid(b, otherB, until);
+            int slot = 4 * (iteration % (tenure + 1));
+            expiring[slot] = a;
+            expiring[slot + 1] = other;
+            expiring[slot + 2] = b;
+            expiring[slot + 3] = otherB;
+
+            // The side that reversePath flips; it keeps its positions
+            int length = j - i;
+            if (length < 0) {
+                length += n;
+            }
+            length++;
+            int first = i;
+            if (2 * length > n) {
+                first = j + 1 == n ? 0 : j + 1;
+                length = n - length;
+            }
+            TwoOpt.reversePath(tour, position, i, j);
+            // A flipped city only changes moves that pair it with a city on the other side;
+            // the others keep their values, but its succ and pred swap places
+            for (int k = 0, p = first; k < length; k++, p++) {
+                int x = tour[p >= n ? p - n : p];
+                freeDirection[x] ^= 1;
+                anyDirection[x] ^= 1;
+                for (int c : candidates[x]) {
+                    if (!inside(c, first, length)) {
+                        push(x);
+                        break;
+                    }
+                }
+                for (int h = holderStart[x]; h < holderStart[x + 1]; h++) {
+                    if (!inside(holders[h], first, length)) {
+                        push(holders[h]);
+                    }
+                }
+            }
+
+            // New tour neighbours, and owners of moves that would re-add the forbidden edges
+            markTabuChange(a);
+            markTabuChange(other);
+            markTabuChange(b);
+            markTabuChange(otherB);
+        }
+
+        private boolean inside(int city, int first, int length) {
+            int offset = position[city] - first;
+            return (offset < 0 ? offset + n : offset) < length;
+        }
+
+        // Edges forbidden tenure + 1 iterations ago become allowed again now
+        private void expire() {
+            int slot = 4 * (iteration % (tenure + 1));
+            for (int k = slot; k < slot + 4; k++) {
+                if (expiring[k] >= 0) {
+                    markTabuChange(expiring[k]);
+                    expiring[k] = -1;
+                }
+            }
+        }
+
+        // A move of city a can add an edge at a or at a's tour neighbour, so a
+        // tabu change on an edge at x affects x and the cities next to it
+        private void markTabuChange(int city) {
+            markDirty(city);
+            push(pred(city));
+            push(succ(city));
+        }
+
+        // A city whose tour neighbours or orientation changed, and every city
+        // that has it as a candidate
+        private void markDirty(int city) {
+            push(city);
+            for (int h = holderStart[city]; h < holderStart[city + 1]; h++) {
+                push(holders[h]);
+            }
+        }
+
+        private void push(int city) {
+            if (dirtyStamp[city] != stamp + 1) {
+                dirtyStamp[city] = stamp + 1;
+                dirty[dirtyCount++] = city;
+            }
+        }
+
+        private void flushDirty() {
+            for (int k = 0; k < dirtyCount; k++) {
+                rescore(dirty[k]);
+            }
+            dirtyCount = 0;
+            stamp++;
+        }
+    }
+
+    // Binary min-heap over cities keyed by their best move delta
+    private static final class IndexedHeap {
+        private final int[] heap;
+        private final int[] index;
+        private final double[] key;
+
+        IndexedHeap(int n) {
+            this.heap = new int[n];
+            this.index = new int[n];
+            this.key = new double[n];
+            for (int i = 0; i < n; i++) {
+                heap[i] = i;
+                index[i] = i;
+                key[i] = Double.POSITIVE_INFINITY;
+            }
+        }
+
+        int top() {
+            return heap[0];
+        }
+
+        double topKey() {
+            return heap.length == 0 ? Double.POSITIVE_INFINITY : key[heap[0]];
+        }
+
+        void update(int city, double value) {
+            double old = key[city];
+            key[city] = value;
+            if (value < old) {
+                siftUp(index[city]);
+            } else if (value > old) {
+                siftDown(index[city]);
+            }
+        }
+
+        private void siftUp(int i) {
+            int city = heap[i];
+            double value = key[city];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (key[heap[parent]] <= value) {
+                    break;
+                }
+                place(heap[parent], i);
+                i = parent;
+            }
+            place(city, i);
+        }
+
+        private void siftDown(int i) {
+            int city = heap[i];
+            double value = key[city];
+            int size = heap.length;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && key[heap[child + 1]] < key[heap[child]]) {
+                    child++;
+                }
+                if (key[heap[child]] >= value) {
+                    break;
+                }
+                place(heap[child], i);
+                i = child;
+            }
+            place(city, i);
+        }
+
+        private void place(int city, int i) {
+            heap[i] = city;
+            index[city] = i;
+        }
+    }
+}
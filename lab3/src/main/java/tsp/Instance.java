@@ -0,0 +1,85 @@
+package tsp;
+
+import java.util.Arrays;
+
+/**
+ * A TSPLIB instance with its coordinates kept as two primitive arrays. The
+ * arrays are shared, not copied, by everything built from the instance, so
+ * they must not be modified. An instance read from the binary cache may also
+ * carry precomputed nearest-neighbour lists.
+ */
+public final class Instance {
+
+    private final String name;
+    private final String edgeWeightType;
+    private final double[] xs;
+    private final double[] ys;
+    // Row-major n x neighbourCount nearest neighbours, nearest first; null when absent
+    private final int[] neighbours;
+    private final int neighbourCount;
+
+    public Instance(String name, String edgeWeightType, double[] xs, double[] ys) {
+        this(name, edgeWeightType, xs, ys, null, 0);
+    }
+
+    Instance(String name, String edgeWeightType, double[] xs, double[] ys, int[] neighbours, int neighbourCount) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Coordinate arrays differ in length: " + xs.length + " and " + ys.length);
+        }
+        this.name = name;
+        this.edgeWeightType = edgeWeightType;
+        this.xs = xs;
+        this.ys = ys;
+        this.neighbours = neighbours;
+        this.neighbourCount = neighbours == null ? 0 : neighbourCount;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    // EDGE_WEIGHT_TYPE from the header, e.g. EUC_2D
+    public String edgeWeightType() {
+        return edgeWeightType;
+    }
+
+    public int dimension() {
+        return xs.length;
+    }
+
+    public double[] xs() {
+        return xs;
+    }
+
+    public double[] ys() {
+        return ys;
+    }
+
+    // Rows of (x, y), a fresh copy for code written against double[][]
+    public double[][] coordinates() {
+        double[][] coordinates = new double[xs.length][];
+        for (int i = 0; i < xs.length; i++) {
+            coordinates[i] = new double[]{xs[i], ys[i]};
+        }
+        return coordinates;
+    }
+
+    // Length of the precomputed neighbour lists, 0 when there are none
+    public int neighbourCount() {
+        return neighbourCount;
+    }
+
+    // The first k precomputed neighbours of the city; k must not exceed neighbourCount()
+    public int[] neighbours(int city, int k) {
+        if (k > neighbourCount) {
+            throw new IllegalArgumentException("Only " + neighbourCount + " neighbours are stored, " + k + " requested");
+        }
+        int from = city * neighbourCount;
+        return Arrays.copyOfRange(neighbours, from, from + k);
+    }
+
+    // The flat neighbour table as stored, for the cache writer
+    int[] neighbourTable() {
+        return neighbours;
+    }
+}
@@ -0,0 +1,217 @@
+package tsp;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary copy of a parsed .tsp file, kept next to it as .tspbin and read
+ * through a memory map. Layout, little-endian:
+ * <pre>
+ *   int magic, int version,
+ *   long source size, long source mtime, int source CRC32,
+ *   int dimension, int neighbours per city (0 = no section),
+ *   short length + UTF-8 name, short length + UTF-8 edge weight type,
+ *   padding to 8 bytes, double[n] xs, double[n] ys, int[n * k] neighbours
+ * </pre>
+ * A cache whose size or mtime differs from the source is checked against the
+ * CRC32 of the source and rewritten when that differs too; when only the
+ * mtime changed, the new one is stored so the next load skips the CRC.
+ * Caching is best effort: when the cache cannot be read or the directory is
+ * read-only, the source is parsed and returned without a cache.
+ */
+public final class InstanceCache {
+
+    public static final String EXTENSION = ".tspbin";
+    // Neighbour lists stored with every new cache
+    public static final int NEIGHBOURS = CandidateLists.DEFAULT_SIZE;
+
+    private static final int MAGIC = 0x42505354; // "TSPB" read little-endian
+    private static final int VERSION = 1;
+    // Position of the source mtime in the header
+    private static final int MODIFIED_OFFSET = 16;
+
+    private InstanceCache() {
+    }
+
+    // Reads the instance from its cache, building the cache first when it is missing or stale
+    public static Instance load(Path source) throws IOException {
+        Path cache = cachePath(source);
+        long size = Files.size(source);
+        long modified = Files.getLastModifiedTime(source).toMillis();
+        if (Files.exists(cache)) {
+            try {
+                Instance instance = read(cache, source, size, modified);
+                if (instance != null) {
+                    return instance;
+                }
+            } catch (IOException e) {
+                // Unreadable cache, parse the source as if there were none
+            }
+        }
+        Instance parsed = TspLib.parse(source);
+        int k = Math.min(NEIGHBOURS, parsed.dimension() - 1);
+        Instance instance = k > 0 ? withNeighbours(parsed, k) : parsed;
+        try {
+            write(cache, instance, size, modified, checksum(source));
+        } catch (IOException e) {
+            // No cache this time, the parsed instance is still good
+        }
+        return instance;
+    }
+
+    public static Path cachePath(Path source) {
+        String file = source.getFileName().toString();
+        int dot = file.lastIndexOf('.');
+        String base = dot > 0 ? file.substring(0, dot) : file;
+        return source.resolveSibling(base + EXTENSION);
+    }
+
+    // The cached instance, or null when the cache is unreadable or does not match the source
+    private static Instance read(Path cache, Path source, long size, long modified) throws IOException {
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < 40 || length > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt() != MAGIC || map.getInt() != VERSION) {
+                return null;
+            }
+            long cachedSize = map.getLong();
+            long cachedModified = map.getLong();
+            int cachedCrc = map.getInt();
+            if (cachedSize != size || (cachedModified != modified && cachedCrc != checksum(source))) {
+                return null;
+            }
+            int n = map.getInt();
+            int k = map.getInt();
+            String name = string(map);
+            String edgeWeightType = string(map);
+            if (name == null || edgeWeightType == null || n < 0 || k < 0) {
+                return null;
+            }
+            int start = align(map.position());
+            if (length != start + 16L * n + 4L * n * k) {
+                return null;
+            }
+            map.position(start);
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            map.asDoubleBuffer().get(xs).get(ys);
+            int[] neighbours = null;
+            if (k > 0) {
+                map.position(start + 16 * n);
+                neighbours = new int[n * k];
+                map.asIntBuffer().get(neighbours);
+            }
+            if (cachedModified != modified) {
+                touch(cache, modified);
+            }
+            return new Instance(name, edgeWeightType, xs, ys, neighbours, k);
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    // Stores the source mtime of a cache whose CRC still matches; a failure
+    // only means the next load checks the CRC again
+    private static void touch(Path cache, long modified) {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(modified).flip();
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.WRITE)) {
+            channel.write(buffer, MODIFIED_OFFSET);
+        } catch (IOException e) {
+            // Read-only cache, keep the old mtime
+        }
+    }
+
+    // Writes to a temporary file first so that concurrent runs never map a half-written cache
+    private static void write(Path cache, Instance instance, long size, long modified, int crc) throws IOException {
+        byte[] name = instance.name().getBytes(StandardCharsets.UTF_8);
+        byte[] edgeWeightType = instance.edgeWeightType().getBytes(StandardCharsets.UTF_8);
+        if (name.length > Short.MAX_VALUE || edgeWeightType.length > Short.MAX_VALUE) {
+            throw new IOException("Header strings too long");
+        }
+        int n = instance.dimension();
+        int k = instance.neighbourCount();
+        int start = align(36 + 2 + name.length + 2 + edgeWeightType.length);
+        long length = start + 16L * n + 4L * n * k;
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Instance too large to cache: " + n);
+        }
+
+        Path temporary = Files.createTempFile(cache.toAbsolutePath().getParent(), cache.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+                map.order(ByteOrder.LITTLE_ENDIAN);
+                map.putInt(MAGIC).putInt(VERSION);
+                map.putLong(size).putLong(modified).putInt(crc);
+                map.putInt(n).putInt(k);
+                map.putShort((short) name.length).put(name);
+                map.putShort((short) edgeWeightType.length).put(edgeWeightType);
+                map.position(start);
+                map.asDoubleBuffer().put(instance.xs()).put(instance.ys());
+                if (k > 0) {
+                    map.position(start + 16 * n);
+                    map.asIntBuffer().put(instance.neighbourTable());
+                }
+                map.force();
+            }
+            try {
+                Files.move(temporary, cache, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, cache, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static Instance withNeighbours(Instance instance, int k) {
+        KdTree tree = new KdTree(instance.xs(), instance.ys());
+        int n = instance.dimension();
+        int[] neighbours = new int[n * k];
+        for (int city = 0; city < n; city++) {
+            System.arraycopy(tree.nearest(city, k), 0, neighbours, city * k, k);
+        }
+        return new Instance(instance.name(), instance.edgeWeightType(), instance.xs(), instance.ys(), neighbours, k);
+    }
+
+    // CRC32 of the whole source file, read through a memory map
+    private static int checksum(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            CRC32 crc = new CRC32();
+            long size = channel.size();
+            for (long offset = 0; offset < size; offset += Integer.MAX_VALUE) {
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(Integer.MAX_VALUE, size - offset)));
+            }
+            return (int) crc.getValue();
+        }
+    }
+
+    private static String string(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0 || length > buffer.remaining()) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int align(int position) {
+        return (position + 7) & ~7;
+    }
+}
@@ -0,0 +1,212 @@
+package tsp;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * One island of the island-model GA. It owns its population for the whole
+ * run, so successive evolve() calls continue from where the previous epoch
+ * stopped, and migrants are inserted into that same population.
+ * With a local search the island runs the memetic variant.
+ */
+public final class Island {
+
+    private static final int TOURNAMENT_SIZE = 5;
+
+    private final DistanceMatrix distances;
+    private final double mutationRate;
+    private final LocalOptimizer localSearch;
+    private final Crossover crossover;
+    private final RandomGenerator random;
+    // Current generation and the one being written; swapped after every generation
+    private PopulationArena population;
+    private PopulationArena nextPopulation;
+    // Tour length of individual i, computed once when the individual is created
+    private double[] fitness;
+    private double[] nextFitness;
+    // Scratch tours for the generation loop
+    private final int[] parent1;
+    private final int[] parent2;
+    private final int[] child;
+    private int[] bestTour;
+    private double bestLength = Double.MAX_VALUE;
+
+    public Island(DistanceMatrix distances, int populationSize, double mutationRate,
+                  LocalOptimizer localSearch, RandomGenerator random) {
+        this.distances = distances;
+        this.mutationRate = mutationRate;
+        this.localSearch = localSearch;
+        this.random = random;
+        this.crossover = new Crossover(distances.size());
+        int n = distances.size();
+        this.population = PopulationArena.allocate(populationSize, n);
+        this.nextPopulation = PopulationArena.allocate(populationSize, n);
+        this.fitness = new double[populationSize];
+        this.nextFitness = new double[populationSize];
+        this.parent1 = new int[n];
+        this.parent2 = new int[n];
+        this.child = new int[n];
+        for (int j = 0; j < n; j++) {
+            child[j] = j;
+        }
+        for (int i = 0; i < populationSize; i++) {
+            shuffle(child);
+            population.write(i, child);
+            fitness[i] = distances.tourLength(child);
+            recordBest(child, fitness[i]);
+        }
+    }
+
+    public void evolve(int generations) {
+        evolve(generations, null);
+    }
+
+    // As above, charging one evaluation per child to the meter (may be null).
+    // A spent meter ends the run before the next child; the unfinished
+    // generation is dropped and the population stays as it was.
+    public void evolve(int generations, Budget.Meter meter) {
+        for (int gen = 0; gen < generations; gen++) {
+            for (int i = 0; i < population.size; i++) {
+                if (meter != null && (meter.exhausted() || meter.spend(1))) {
+                    return;
+                }
+                long time = Metrics.ENABLED ? System.nanoTime() : 0;
+                population.read(selectParent(), parent1);
+                population.read(selectParent(), parent2);
+                if (Metrics.ENABLED) {
+                    time = Metrics.Phase.SELECTION.lap(time);
+                }
+
+                // PMX and OX alternate at random for diversity
+                if (random.nextDouble() < 0.5) {
+                    crossover.pmx(parent1, parent2, child, random);
+                } else {
+                    crossover.ox(parent1, parent2, child, random);
+                }
+                if (Metrics.ENABLED) {
+                    time = Metrics.Phase.CROSSOVER.lap(time);
+                }
+
+                if (random.nextDouble() < mutationRate) {
+                    mutateSwap(child);
+                }
+                if (Metrics.ENABLED) {
+                    time = Metrics.Phase.MUTATION.lap(time);
+                }
+                if (localSearch != null) {
+                    localSearch.optimize(child);
+                    if (Metrics.ENABLED) {
+                        long now = Metrics.Phase.LOCAL_SEARCH.lap(time);
+                        Metrics.Histogram.LOCAL_SEARCH_NANOS.record(now - time);
+                        time = now;
+                    }
+                }
+                nextPopulation.write(i, child);
+                nextFitness[i] = distances.tourLength(child);
+                if (Metrics.ENABLED) {
+                    Metrics.Phase.EVALUATION.lap(time);
+                    Metrics.Counter.EVALUATIONS.increment();
+                }
+                if (recordBest(child, nextFitness[i]) && meter != null) {
+                    meter.improved(bestTour, bestLength);
+                }
+            }
+            PopulationArena arena = population;
+            population = nextPopulation;
+            nextPopulation = arena;
+            double[] lengths = fitness;
+            fitness = nextFitness;
+            nextFitness = lengths;
+        }
+    }
+
+    // Overwrites the worst individual with the migrant if the migrant
+    // is shorter. Returns whether it was taken.
+    public boolean immigrate(int[] migrant) {
+        int worst = 0;
+        for (int i = 1; i < population.size; i++) {
+            if (fitness[i] > fitness[worst]) {
+                worst = i;
+            }
+        }
+        double length = distances.tourLength(migrant);
+        if (length >= fitness[worst]) {
+            return false;
+        }
+        population.write(worst, migrant);
+        fitness[worst] = length;
+        recordBest(migrant, length);
+        return true;
+    }
+
+    // Copies of the count shortest individuals, shortest first
+    public int[][] elites(int count) {
+        count = Math.min(count, population.size);
+        int[][] elites = new int[count][];
+        boolean[] taken = new boolean[population.size];
+        for (int e = 0; e < count; e++) {
+            int best = -1;
+            for (int i = 0; i < population.size; i++) {
+                if (!taken[i] && (best < 0 || fitness[i] < fitness[best])) {
+                    best = i;
+                }
+            }
+            taken[best] = true;
+            elites[e] = new int[population.n];
+            population.read(best, elites[e]);
+        }
+        return elites;
+    }
+
+    public int[] best() {
+        return bestTour;
+    }
+
+    public double bestLength() {
+        return bestLength;
+    }
+
+    RandomGenerator random() {
+        return random;
+    }
+
+    // Tournament selection
+    private int selectParent() {
+        int best = random.nextInt(population.size);
+        for (int i = 1; i < TOURNAMENT_SIZE; i++) {
+            int index = random.nextInt(population.size);
+            if (fitness[index] < fitness[best]) {
+                best = index;
+            }
+        }
+        return best;
+    }
+
+    private boolean recordBest(int[] tour, double length) {
+        if (length < bestLength) {
+            bestLength = length;
+            bestTour = tour.clone();
+            return true;
+        }
+        return false;
+    }
+
+    private void mutateSwap(int[] tour) {
+        int index1 = random.nextInt(tour.length);
+        int index2 = random.nextInt(tour.length);
+        while (index1 == index2) {
+            index2 = random.nextInt(tour.length);
+        }
+        int temp = tour[index1];
+        tour[index1] = tour[index2];
+        tour[index2] = temp;
+    }
+
+    private void shuffle(int[] array) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int index = random.nextInt(i + 1);
+            int a = array[index];
+            array[index] = array[i];
+            array[i] = a;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package tsp;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a set of islands on the shared work-stealing pool. An epoch is one
+ * migration interval: every island epoch is one task, so more islands than
+ * cores are balanced by stealing.
+ *
+ * Synchronous mode waits for all islands after each epoch and then performs
+ * the migration in island order. Asynchronous mode has no barrier: after
+ * each epoch an island pulls whatever waits in its mailbox, posts its own
+ * elites and schedules its next epoch.
+ */
+public final class IslandModel {
+
+    private final Island[] islands;
+    private final Migration migration;
+
+    public IslandModel(Island[] islands, Migration migration) {
+        this.islands = islands;
+        this.migration = migration;
+    }
+
+    public void runSynchronous(int epochs) {
+        runSynchronous(epochs, null);
+    }
+
+    // As above, stopping every island as soon as the meter (may be null) is
+    // spent or the calling thread is interrupted
+    public void runSynchronous(int epochs, Budget.Meter meter) {
+        int generations = migration.interval();
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            if (meter != null && meter.exhausted()) {
+                break;
+            }
+            RecursiveAction step = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    RecursiveAction[] steps = new RecursiveAction[islands.length];
+                    for (int i = 0; i < islands.length; i++) {
+                        Island island = islands[i];
+                        steps[i] = new RecursiveAction() {
+                            @Override
+                            protected void compute() {
+                                island.evolve(generations, meter);
+                            }
+                        };
+                    }
+                    ForkJoinTask.invokeAll(steps);
+                }
+            };
+            if (meter == null) {
+                Scheduler.pool().invoke(step);
+            } else {
+                await(Scheduler.pool().submit(step), meter);
+            }
+
+            // No migration after the last epoch
+            if (epoch < epochs - 1) {
+                long time = Metrics.ENABLED ? System.nanoTime() : 0;
+                for (int i = 0; i < islands.length; i++) {
+                    migration.emigrate(i, islands[i]);
+                }
+                for (int i = 0; i < islands.length; i++) {
+                    migration.immigrate(i, islands[i]);
+                }
+                if (Metrics.ENABLED) {
+                    Metrics.Phase.MIGRATION.lap(time);
+                }
+            }
+        }
+    }
+
+    // Unlike invoke(), get() lets the caller see an interrupt while it waits;
+    // the interrupt stops the islands at their next child
+    private static void await(ForkJoinTask<Void> task, Budget.Meter meter) {
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            meter.stop();
+            task.join();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Island failed", e.getCause());
+        }
+    }
+
+    public void runAsynchronous(int epochs) {
+        runAsynchronous(epochs, null);
+    }
+
+    // As above; an island whose epoch ends with the meter (may be null) spent
+    // stops there. With a meter, an interrupt stops the run instead of failing it.
+    public void runAsynchronous(int epochs, Budget.Meter meter) {
+        int generations = migration.interval();
+        CountDownLatch finished = new CountDownLatch(islands.length);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        final class Step extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int island;
+            private final int epoch;
+
+            Step(int island, int epoch) {
+                this.island = island;
+                this.epoch = epoch;
+            }
+
+            @Override
+            protected void compute() {
+                try {
+                    Island self = islands[island];
+                    self.evolve(generations, meter);
+                    if (epoch == epochs - 1 || (meter != null && meter.exhausted())) {
+                        finished.countDown();
+                        return;
+                    }
+                    long time = Metrics.ENABLED ? System.nanoTime() : 0;
+                    migration.immigrate(island, self);
+                    migration.emigrate(island, self);
+                    if (Metrics.ENABLED) {
+                        Metrics.Phase.MIGRATION.lap(time);
+                    }
+                    new Step(island, epoch + 1).fork();
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                    finished.countDown();
+                }
+            }
+        }
+
+        for (int i = 0; i < islands.length; i++) {
+            Scheduler.pool().execute(new Step(i, 0));
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                finished.await();
+                break;
+            } catch (InterruptedException e) {
+                if (meter == null) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for islands", e);
+                }
+                // await() cleared the flag the meter watches: stop the islands
+                // directly and wait for them to finish their current child
+                interrupted = true;
+                meter.stop();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Island failed", failure.get());
+        }
+    }
+
+    public int[] best() {
+        int[] bestTour = null;
+        double bestLength = Double.MAX_VALUE;
+        for (Island island : islands) {
+            if (island.bestLength() < bestLength) {
+                bestLength = island.bestLength();
+                bestTour = island.best();
+            }
+        }
+        return bestTour;
+    }
+}
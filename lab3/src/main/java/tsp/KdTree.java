@@ -0,0 +1,317 @@
+package tsp;
+
+import java.util.Arrays;
+
+/**
+ * Static 2-d tree over city coordinates. The tree is implicit: cities are
+ * permuted so that every subrange [lo, hi) is split at its median, and the
+ * split axis of that node is stored at the median slot. Building is
+ * O(n log n) expected (quickselect per level), queries return city indices.
+ */
+public final class KdTree {
+
+    private static final int LEAF_SIZE = 8;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] cities;
+    private final byte[] axis;
+
+    public KdTree(double[][] coordinates) {
+        this(DistanceMatrix.column(coordinates, 0), DistanceMatrix.column(coordinates, 1));
+    }
+
+    // The coordinate arrays are kept, not copied
+    public KdTree(double[] xs, double[] ys) {
+        int n = xs.length;
+        this.xs = xs;
+        this.ys = ys;
+        this.cities = new int[n];
+        for (int i = 0; i < n; i++) {
+            cities[i] = i;
+        }
+        this.axis = new byte[n];
+        build(0, n);
+    }
+
+    public int size() {
+        return cities.length;
+    }
+
+    // The k cities closest to the given one (itself excluded), nearest first
+    public int[] nearest(int city, int k) {
+        Query query = new Query(Math.min(k, cities.length - 1));
+        query.run(xs[city], ys[city], city, -1);
+        return query.sorted();
+    }
+
+    /**
+     * Up to perQuadrant nearest cities in each of the four quadrants around
+     * the city, topped up with the nearest remaining cities to k in total.
+     */
+    public int[] quadrant(int city, int perQuadrant, int k) {
+        k = Math.min(k, cities.length - 1);
+        int[] result = new int[k];
+        int count = 0;
+        for (int q = 0; q < 4 && count < k; q++) {
+            Query query = new Query(Math.min(perQuadrant, k - count));
+            query.run(xs[city], ys[city], city, q);
+            for (int c : query.sorted()) {
+                result[count++] = c;
+            }
+        }
+        if (count < k) {
+            Query query = new Query(k);
+            query.run(xs[city], ys[city], city, -1);
+            for (int c : query.sorted()) {
+                if (count == k) {
+                    break;
+                }
+                if (!contains(result, count, c)) {
+                    result[count++] = c;
+                }
+            }
+        }
+        sortByDistance(city, result, count);
+        return count == k ? result : Arrays.copyOf(result, count);
+    }
+
+    private static boolean contains(int[] array, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (array[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sortByDistance(int city, int[] list, int length) {
+        for (int i = 1; i < length; i++) {
+            int c = list[i];
+            double d = distance2(city, c);
+            int j = i - 1;
+            while (j >= 0 && distance2(city, list[j]) > d) {
+                list[j + 1] = list[j];
+                j--;
+            }
+            list[j + 1] = c;
+        }
+    }
+
+    private double distance2(int a, int b) {
+        double dx = xs[a] - xs[b];
+        double dy = ys[a] - ys[b];
+        return dx * dx + dy * dy;
+    }
+
+    // Quadrant 0..3 = (+x,+y), (-x,+y), (-x,-y), (+x,-y); ties go to the first match
+    private boolean inQuadrant(int quadrant, double qx, double qy, int city) {
+        double dx = xs[city] - qx;
+        double dy = ys[city] - qy;
+        switch (quadrant) {
+            case 0:
+                return dx >= 0 && dy > 0;
+            case 1:
+                return dx < 0 && dy >= 0;
+            case 2:
+                return dx <= 0 && dy < 0;
+            default:
+                return dx > 0 && dy <= 0;
+        }
+    }
+
+    private void build(int lo, int hi) {
+        while (hi - lo > LEAF_SIZE) {
+            int mid = (lo + hi) >>> 1;
+            int splitAxis = spread(lo, hi, xs) >= spread(lo, hi, ys) ? 0 : 1;
+            select(lo, hi - 1, mid, splitAxis == 0 ? xs : ys);
+            axis[mid] = (byte) splitAxis;
+            build(lo, mid);
+            lo = mid + 1;
+        }
+    }
+
+    private double spread(int lo, int hi, double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = lo; i < hi; i++) {
+            double v = values[cities[i]];
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        return max - min;
+    }
+
+    // Quickselect: puts the k-th smallest of cities[left..right] (by key) at k
+    private void select(int left, int right, int k, double[] key) {
+        while (right > left) {
+            int mid = (left + right) >>> 1;
+            double pivot = median(key[cities[left]], key[cities[mid]], key[cities[right]]);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (key[cities[i]] < pivot) {
+                    i++;
+                }
+                while (key[cities[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int temp = cities[i];
+                    cities[i] = cities[j];
+                    cities[j] = temp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static double median(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    // Bounded max-heap of the best candidates found so far
+    private final class Query {
+        private final int capacity;
+        private final int[] heapCities;
+        private final double[] heapDistances;
+        private int size;
+        private double qx;
+        private double qy;
+        private int exclude;
+        private int quadrant;
+
+        Query(int capacity) {
+            this.capacity = capacity;
+            this.heapCities = new int[capacity];
+            this.heapDistances = new double[capacity];
+        }
+
+        void run(double x, double y, int excludedCity, int quadrantFilter) {
+            qx = x;
+            qy = y;
+            exclude = excludedCity;
+            quadrant = quadrantFilter;
+            size = 0;
+            if (capacity > 0) {
+                search(0, cities.length);
+            }
+        }
+
+        int[] sorted() {
+            int[] result = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = heapCities[0];
+                pop();
+            }
+            return result;
+        }
+
+        private double worst() {
+            return size < capacity ? Double.POSITIVE_INFINITY : heapDistances[0];
+        }
+
+        private void search(int lo, int hi) {
+            if (hi - lo <= LEAF_SIZE) {
+                for (int i = lo; i < hi; i++) {
+                    consider(cities[i]);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            int city = cities[mid];
+            consider(city);
+            double diff = axis[mid] == 0 ? qx - xs[city] : qy - ys[city];
+            // A quadrant query never needs the half that lies entirely on the wrong side
+            boolean left = quadrant < 0 || diff <= 0 || !positiveSide(axis[mid]);
+            boolean right = quadrant < 0 || diff >= 0 || positiveSide(axis[mid]);
+            if (diff < 0) {
+                if (left) {
+                    search(lo, mid);
+                }
+                if (right && diff * diff <= worst()) {
+                    search(mid + 1, hi);
+                }
+            } else {
+                if (right) {
+                    search(mid + 1, hi);
+                }
+                if (left && diff * diff <= worst()) {
+                    search(lo, mid);
+                }
+            }
+        }
+
+        // Whether the current quadrant lies on the increasing side of the axis
+        private boolean positiveSide(int splitAxis) {
+            return splitAxis == 0 ? quadrant == 0 || quadrant == 3 : quadrant == 0 || quadrant == 1;
+        }
+
+        private void consider(int city) {
+            if (city == exclude || (quadrant >= 0 && !inQuadrant(quadrant, qx, qy, city))) {
+                return;
+            }
+            double dx = xs[city] - qx;
+            double dy = ys[city] - qy;
+            double d = dx * dx + dy * dy;
+            if (size < capacity) {
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (heapDistances[parent] >= d) {
+                        break;
+                    }
+                    heapCities[i] = heapCities[parent];
+                    heapDistances[i] = heapDistances[parent];
+                    i = parent;
+                }
+                heapCities[i] = city;
+                heapDistances[i] = d;
+            } else if (d < heapDistances[0]) {
+                heapCities[0] = city;
+                heapDistances[0] = d;
+                siftDown();
+            }
+        }
+
+        private void pop() {
+            size--;
+            if (size > 0) {
+                heapCities[0] = heapCities[size];
+                heapDistances[0] = heapDistances[size];
+                siftDown();
+            }
+        }
+
+        private void siftDown() {
+            int city = heapCities[0];
+            double d = heapDistances[0];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heapDistances[child + 1] > heapDistances[child]) {
+                    child++;
+                }
+                if (heapDistances[child] <= d) {
+                    break;
+                }
+                heapCities[i] = heapCities[child];
+                heapDistances[i] = heapDistances[child];
+                i = child;
+            }
+            heapCities[i] = city;
+            heapDistances[i] = d;
+        }
+    }
+}
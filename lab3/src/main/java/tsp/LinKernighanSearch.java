@@ -0,0 +1,355 @@
+package tsp;
+
+/**
+ * Lin-Kernighan style variable-depth local search. Starting from an edge
+ * (t1, t2) it grows a chain of sequential moves while the partial gain stays
+ * positive and can still beat the best closed chain seen, then keeps the
+ * chain up to its best closing point. Each step is either a 2-opt flip or an
+ * or-3opt move (segment exchange); new edges go to the candidate neighbours
+ * of the chain end. The first levels backtrack over several alternatives
+ * (BREADTH), deeper levels take the best one only, and the chain is cut at
+ * maxDepth steps. Start cities come from a don't-look-bit queue.
+ * One instance is not thread-safe.
+ */
+public final class LinKernighanSearch implements LocalOptimizer {
+
+    public static final int DEFAULT_MAX_DEPTH = 50;
+
+    // Alternatives tried at chain levels 1, 2, ...; deeper levels try one
+    private static final int[] BREADTH = {5, 3};
+    private static final double EPSILON = 1e-10;
+
+    private final DistanceMatrix distances;
+    private final int[][] neighbours;
+    private final int maxDepth;
+    private final int n;
+    private final boolean[] queued;
+    private final int[] queue;
+    private int queueHead;
+    private int queueSize;
+    private Tour tour;
+    private Tour arrayTour;
+
+    // Flips of the current chain, as 2-opt moves (t1, t2, t3, t4), for rollback
+    private final int[] flips;
+    private int flipCount;
+    // Edges added by the current chain; they may not be removed again
+    private final int[] addedFrom;
+    private final int[] addedTo;
+    private int addedCount;
+    // Cities touched by the current chain, reactivated on success
+    private final int[] touched;
+    private int touchedCount;
+    // Per level scratch for the ranked alternatives: t3, t4, t5, t6 and value
+    private final int[][] alternatives;
+    private final double[][] values;
+    // Best closed chain so far: its gain and how much of the stacks it used
+    private double bestGain;
+    private int bestFlipCount;
+    private int bestTouchedCount;
+    private long movesApplied;
+
+    public LinKernighanSearch(DistanceMatrix distances, int[][] neighbours) {
+        this(distances, neighbours, DEFAULT_MAX_DEPTH);
+    }
+
+    public LinKernighanSearch(DistanceMatrix distances, int[][] neighbours, int maxDepth) {
+        this.distances = distances;
+        this.neighbours = neighbours;
+        this.maxDepth = maxDepth;
+        this.n = distances.size();
+        this.queued = new boolean[n];
+        this.queue = new int[n];
+        this.flips = new int[4 * 3 * (maxDepth + 1)];
+        this.addedFrom = new int[2 * (maxDepth + 1)];
+        this.addedTo = new int[2 * (maxDepth + 1)];
+        this.touched = new int[6 * (maxDepth + 1)];
+        int width = 0;
+        for (int[] near : neighbours) {
+            width = Math.max(width, 2 * near.length);
+        }
+        this.alternatives = new int[BREADTH.length][4 * width];
+        this.values = new double[BREADTH.length][width];
+    }
+
+    @Override
+    public double optimize(int[] order) {
+        if (arrayTour == null) {
+            arrayTour = Tour.of(order);
+        } else {
+            arrayTour.load(order);
+        }
+        double gain = optimize(arrayTour);
+        arrayTour.copyTo(order);
+        return gain;
+    }
+
+    @Override
+    public double optimize(Tour tour) {
+        if (n < 8) {
+            return 0;
+        }
+        this.tour = tour;
+        for (int i = 0, city = 0; i < n; i++, city = tour.next(city)) {
+            push(city);
+        }
+
+        double gain = 0;
+        while (queueSize > 0) {
+            int t1 = poll();
+            for (int side = 0; side < 2; side++) {
+                int t2 = side == 0 ? tour.next(t1) : tour.prev(t1);
+                flipCount = 0;
+                addedCount = 0;
+                touchedCount = 0;
+                bestGain = 0;
+                step(1, t1, t2, distances.get(t1, t2));
+                if (bestGain > 0) {
+                    // The chain ran on past its best closing point
+                    rollback(bestFlipCount);
+                    gain += bestGain;
+                    movesApplied++;
+                    push(t1);
+                    for (int i = 0; i < bestTouchedCount; i++) {
+                        push(touched[i]);
+                    }
+                    break;
+                }
+            }
+        }
+        this.tour = null;
+        return gain;
+    }
+
+    // Number of improving chains applied so far
+    public long movesApplied() {
+        return movesApplied;
+    }
+
+    /**
+     * Extends the chain whose open end is t2 (the tour would close with the
+     * edge (t2, t1)); gain is what the removed edges exceed the added ones by,
+     * without that closing edge. Stops at the first alternative under which
+     * an improving closed chain was found, leaving its flips applied.
+     */
+    private void step(int level, int t1, int t2, double gain) {
+        boolean forward = tour.next(t1) == t2;
+        int breadth = level <= BREADTH.length ? BREADTH[level - 1] : 1;
+        int[] ranked = level <= BREADTH.length ? alternatives[level - 1] : null;
+        double[] rankedValue = level <= BREADTH.length ? values[level - 1] : null;
+        int count = 0;
+
+        // Best single alternative, kept directly for the greedy levels
+        int bestT3 = -1;
+        int bestT4 = -1;
+        int bestT5 = -1;
+        int bestT6 = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+
+        for (int t3 : neighbours[t2]) {
+            double g1 = gain - distances.get(t2, t3);
+            if (g1 <= EPSILON) {
+                break;
+            }
+            if (t3 == t1 || t3 == succ(t2, forward)) {
+                continue;
+            }
+            // 2-opt step: remove (t4, t3) with t4 before t3, reverse t2..t4
+            int t4 = pred(t3, forward);
+            if (!added(t3, t4)) {
+                double value = distances.get(t3, t4) - distances.get(t2, t3);
+                if (ranked != null) {
+                    count = rank(ranked, rankedValue, count, breadth, t3, t4, -1, -1, value);
+                } else if (value > bestValue) {
+                    bestValue = value;
+                    bestT3 = t3;
+                    bestT4 = t4;
+                    bestT5 = -1;
+                    bestT6 = -1;
+                }
+            }
+            // Or-3opt step: remove (t3, t4) with t4 after t3 and close the
+            // resulting cycle through (t5, t6) on the path t2..t3
+            t4 = succ(t3, forward);
+            if (t4 == t1 || added(t3, t4)) {
+                continue;
+            }
+            double g2 = g1 + distances.get(t3, t4);
+            for (int t5 : neighbours[t4]) {
+                double g3 = g2 - distances.get(t4, t5);
+                if (g3 <= EPSILON) {
+                    break;
+                }
+                if (t5 == t3 || !between(t2, t5, t3, forward)) {
+                    continue;
+                }
+                int t6 = succ(t5, forward);
+                if (added(t5, t6)) {
+                    continue;
+                }
+                double value = distances.get(t3, t4) - distances.get(t2, t3)
+                        + distances.get(t5, t6) - distances.get(t4, t5);
+                if (ranked != null) {
+                    count = rank(ranked, rankedValue, count, breadth, t3, t4, t5, t6, value);
+                } else if (value > bestValue) {
+                    bestValue = value;
+                    bestT3 = t3;
+                    bestT4 = t4;
+                    bestT5 = t5;
+                    bestT6 = t6;
+                }
+            }
+        }
+
+        if (ranked == null) {
+            if (bestT3 >= 0) {
+                tryStep(level, t1, t2, gain, bestT3, bestT4, bestT5, bestT6);
+            }
+            return;
+        }
+        for (int i = 0; i < count && bestGain <= 0; i++) {
+            tryStep(level, t1, t2, gain, ranked[4 * i], ranked[4 * i + 1], ranked[4 * i + 2], ranked[4 * i + 3]);
+        }
+    }
+
+    // Applies one step, records the closed chain if it is the best so far and
+    // goes deeper while the open gain can still beat it; rolls the step back
+    // when no improving chain was found at or below it
+    private void tryStep(int level, int t1, int t2, double gain, int t3, int t4, int t5, int t6) {
+        int flipMark = flipCount;
+        int addedMark = addedCount;
+        int touchedMark = touchedCount;
+        double newGain = gain - distances.get(t2, t3) + distances.get(t3, t4);
+        int end;
+        addEdge(t2, t3);
+        touch(t2);
+        touch(t3);
+        touch(t4);
+        if (t5 < 0) {
+            // t1 t2 .. t4 t3  ->  t1 t4 .. t2 t3
+            move(t1, t2, t4, t3);
+            end = t4;
+        } else {
+            // t1 t2 .. t5 t6 .. t3 t4  ->  t1 t6 .. t3 t2 .. t5 t4
+            newGain += distances.get(t5, t6) - distances.get(t4, t5);
+            addEdge(t4, t5);
+            touch(t5);
+            touch(t6);
+            move(t1, t2, t5, t6);
+            move(t2, t6, t3, t4);
+            move(t1, t5, t6, t4);
+            end = t6;
+        }
+
+        double closed = newGain - distances.get(end, t1);
+        if (closed > bestGain + EPSILON) {
+            bestGain = closed;
+            bestFlipCount = flipCount;
+            bestTouchedCount = touchedCount;
+        }
+        if (level < maxDepth && newGain > bestGain + EPSILON) {
+            step(level + 1, t1, end, newGain);
+        }
+        if (bestGain <= 0) {
+            rollback(flipMark);
+            addedCount = addedMark;
+            touchedCount = touchedMark;
+        }
+    }
+
+    // Undoes the recorded flips down to the given stack size
+    private void rollback(int mark) {
+        while (flipCount > mark) {
+            flipCount -= 4;
+            // The inverse of move(a, b, c, d) is move(a, c, b, d)
+            undo(flips[flipCount], flips[flipCount + 2], flips[flipCount + 1], flips[flipCount + 3]);
+        }
+    }
+
+    // Inserts an alternative into the top-breadth list, best value first
+    private static int rank(int[] ranked, double[] rankedValue, int count, int breadth,
+                            int t3, int t4, int t5, int t6, double value) {
+        if (count == breadth && value <= rankedValue[count - 1]) {
+            return count;
+        }
+        int i = count == breadth ? count - 1 : count++;
+        while (i > 0 && rankedValue[i - 1] < value) {
+            rankedValue[i] = rankedValue[i - 1];
+            System.arraycopy(ranked, 4 * (i - 1), ranked, 4 * i, 4);
+            i--;
+        }
+        rankedValue[i] = value;
+        ranked[4 * i] = t3;
+        ranked[4 * i + 1] = t4;
+        ranked[4 * i + 2] = t5;
+        ranked[4 * i + 3] = t6;
+        return count;
+    }
+
+    // 2-opt move removing (t1, t2) and (t3, t4), where t2 follows t1 and t4
+    // follows t3 in the same direction, and adding (t1, t3) and (t2, t4)
+    private void move(int t1, int t2, int t3, int t4) {
+        undo(t1, t2, t3, t4);
+        flips[flipCount++] = t1;
+        flips[flipCount++] = t2;
+        flips[flipCount++] = t3;
+        flips[flipCount++] = t4;
+    }
+
+    // The same move without recording it
+    private void undo(int t1, int t2, int t3, int t4) {
+        if (tour.next(t1) == t2) {
+            tour.flip(t2, t3);
+        } else {
+            tour.flip(t3, t2);
+        }
+    }
+
+    private void addEdge(int a, int b) {
+        addedFrom[addedCount] = a;
+        addedTo[addedCount] = b;
+        addedCount++;
+    }
+
+    private boolean added(int a, int b) {
+        for (int i = 0; i < addedCount; i++) {
+            if ((addedFrom[i] == a && addedTo[i] == b) || (addedFrom[i] == b && addedTo[i] == a)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void touch(int city) {
+        touched[touchedCount++] = city;
+    }
+
+    private int succ(int city, boolean forward) {
+        return forward ? tour.next(city) : tour.prev(city);
+    }
+
+    private int pred(int city, boolean forward) {
+        return forward ? tour.prev(city) : tour.next(city);
+    }
+
+    private boolean between(int a, int b, int c, boolean forward) {
+        return forward ? tour.between(a, b, c) : tour.between(c, b, a);
+    }
+
+    private void push(int city) {
+        if (!queued[city]) {
+            queued[city] = true;
+            int tail = queueHead + queueSize;
+            queue[tail >= n ? tail - n : tail] = city;
+            queueSize++;
+        }
+    }
+
+    private int poll() {
+        int city = queue[queueHead];
+        queueHead = queueHead + 1 == n ? 0 : queueHead + 1;
+        queueSize--;
+        queued[city] = false;
+        return city;
+    }
+}
@@ -0,0 +1,14 @@
+package tsp;
+
+/**
+ * A local search that improves a tour in place and reports the gain.
+ * Implementations keep per-instance scratch state and are not thread-safe.
+ */
+public interface LocalOptimizer {
+
+    // Improves the tour until no move of this neighbourhood helps; returns how much shorter it became
+    double optimize(Tour tour);
+
+    // Same on a city array, which is overwritten with the improved tour
+    double optimize(int[] order);
+}
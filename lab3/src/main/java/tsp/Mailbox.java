@@ -0,0 +1,33 @@
+package tsp;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free mailbox for migrants. Any island may post; the owner
+ * drains. When full, the oldest unread migrant is overwritten.
+ */
+final class Mailbox {
+
+    private final AtomicReferenceArray<int[]> slots;
+    private final AtomicLong posted = new AtomicLong();
+
+    Mailbox(int capacity) {
+        this.slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    // Tours posted here must not be modified afterwards
+    void post(int[] tour) {
+        long index = posted.getAndIncrement();
+        slots.set((int) (index % slots.length()), tour);
+    }
+
+    // Takes the migrant from the given slot, or null when it is empty
+    int[] take(int slot) {
+        return slots.getAndSet(slot, null);
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,227 @@
+package tsp;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide solver counters, phase timers and log2 histograms, for
+ * finding out where a run spends its time. Off unless the JVM starts with
+ * -Dtsp.metrics=true; every call site is guarded by the static final
+ * ENABLED, so when it is false the JIT drops the instrumentation. With
+ * -Dtsp.metrics.file=path a JSON snapshot is appended to that file every
+ * tsp.metrics.period milliseconds (default 1000) and once more at exit.
+ *
+ * All updates go to LongAdders, so worker threads do not contend on them.
+ * Hot loops should count locally and add once per batch.
+ */
+public final class Metrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("tsp.metrics");
+
+    private static final long START_NANOS = System.nanoTime();
+
+    static {
+        String file = System.getProperty("tsp.metrics.file");
+        if (ENABLED && file != null) {
+            export(Path.of(file), Duration.ofMillis(Long.getLong("tsp.metrics.period", 1000)));
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public enum Counter {
+        // Tours or moves scored (per solver, as in Budget)
+        EVALUATIONS,
+        // Moves applied: SA acceptances and tabu steps
+        ACCEPTED_MOVES,
+        // Accepted moves that shortened the current tour
+        IMPROVING_MOVES,
+        // Candidate moves rejected because they were tabu
+        TABU_HITS,
+        // Migrants an island took in
+        MIGRATIONS;
+
+        private final LongAdder adder = new LongAdder();
+
+        public void increment() {
+            adder.increment();
+        }
+
+        public void add(long count) {
+            adder.add(count);
+        }
+
+        public long sum() {
+            return adder.sum();
+        }
+    }
+
+    // Stages of a GA child and of island-model epochs
+    public enum Phase {
+        SELECTION,
+        CROSSOVER,
+        MUTATION,
+        LOCAL_SEARCH,
+        EVALUATION,
+        MIGRATION;
+
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder calls = new LongAdder();
+
+        public void record(long elapsedNanos) {
+            nanos.add(elapsedNanos);
+            calls.increment();
+        }
+
+        // Records the time since the given System.nanoTime() and returns the current one,
+        // so consecutive phases can be timed with one clock read each
+        public long lap(long sinceNanos) {
+            long now = System.nanoTime();
+            record(now - sinceNanos);
+            return now;
+        }
+
+        public long nanos() {
+            return nanos.sum();
+        }
+
+        public long calls() {
+            return calls.sum();
+        }
+    }
+
+    /**
+     * Counts per power of two of the recorded value: bucket i holds values in
+     * [2^(i - OFFSET), 2^(i - OFFSET + 1)), values out of range are clamped
+     * to the first or last bucket. The annealing pair gives the acceptance
+     * rate per temperature band.
+     */
+    public enum Histogram {
+        // Annealing proposals and acceptances, by temperature
+        SA_PROPOSED_BY_TEMPERATURE,
+        SA_ACCEPTED_BY_TEMPERATURE,
+        // Time of one local search call in nanoseconds
+        LOCAL_SEARCH_NANOS;
+
+        public static final int BUCKETS = 64;
+        public static final int OFFSET = 24;
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        Histogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void record(double value) {
+            record(value, 1);
+        }
+
+        public void record(double value, long count) {
+            buckets[bucket(value)].add(count);
+        }
+
+        public long count(int bucket) {
+            return buckets[bucket].sum();
+        }
+
+        // Lower bound of the bucket's values
+        public static double lowerBound(int bucket) {
+            return Math.scalb(1.0, bucket - OFFSET);
+        }
+
+        static int bucket(double value) {
+            if (!(value > 0)) {
+                return 0;
+            }
+            int bucket = Math.getExponent(value) + OFFSET;
+            return Math.max(0, Math.min(BUCKETS - 1, bucket));
+        }
+    }
+
+    public static void reset() {
+        for (Counter counter : Counter.values()) {
+            counter.adder.reset();
+        }
+        for (Phase phase : Phase.values()) {
+            phase.nanos.reset();
+            phase.calls.reset();
+        }
+        for (Histogram histogram : Histogram.values()) {
+            for (LongAdder bucket : histogram.buckets) {
+                bucket.reset();
+            }
+        }
+    }
+
+    // One-line JSON object with every counter, timer and non-empty histogram bucket
+    public static String snapshot() {
+        StringBuilder json = new StringBuilder("{\"time\": \"").append(Instant.now())
+                .append("\", \"uptimeMs\": ").append((System.nanoTime() - START_NANOS) / 1_000_000)
+                .append(", \"counters\": {");
+        for (Counter counter : Counter.values()) {
+            json.append(counter.ordinal() == 0 ? "" : ", ")
+                    .append('"').append(counter.name().toLowerCase(Locale.ROOT)).append("\": ").append(counter.sum());
+        }
+        json.append("}, \"phases\": {");
+        for (Phase phase : Phase.values()) {
+            json.append(phase.ordinal() == 0 ? "" : ", ")
+                    .append('"').append(phase.name().toLowerCase(Locale.ROOT)).append("\": {\"calls\": ")
+                    .append(phase.calls()).append(", \"nanos\": ").append(phase.nanos()).append('}');
+        }
+        json.append("}, \"histograms\": {");
+        for (Histogram histogram : Histogram.values()) {
+            json.append(histogram.ordinal() == 0 ? "" : ", ")
+                    .append('"').append(histogram.name().toLowerCase(Locale.ROOT)).append("\": {");
+            boolean first = true;
+            for (int i = 0; i < Histogram.BUCKETS; i++) {
+                long count = histogram.count(i);
+                if (count != 0) {
+                    json.append(first ? "" : ", ")
+                            .append('"').append(String.format(Locale.ROOT, "%.6g", Histogram.lowerBound(i)))
+                            .append("\": ").append(count);
+                    first = false;
+                }
+            }
+            json.append('}');
+        }
+        return json.append("}}").toString();
+    }
+
+    // Appends a snapshot line to the file every period from a daemon thread, and at exit
+    public static void export(Path file, Duration period) {
+        ScheduledExecutorService exporter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "tsp-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = Math.max(1, period.toMillis());
+        exporter.scheduleAtFixedRate(() -> append(file), millis, millis, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            exporter.shutdownNow();
+            append(file);
+        }, "tsp-metrics-final"));
+    }
+
+    // A failed write is reported and skipped; an exception would cancel the schedule
+    private static void append(Path file) {
+        try {
+            Files.writeString(file, snapshot() + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Cannot write metrics to " + file + ": " + e.getMessage());
+        }
+    }
+}
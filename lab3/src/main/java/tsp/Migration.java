@@ -0,0 +1,153 @@
+package tsp;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Migration policy of the island model: who sends to whom (topology), how
+ * often (interval, in generations) and how many elites per event. Every
+ * island has a bounded lock-free mailbox; senders post copies of their
+ * elites and the receiver pulls them into its population on its own
+ * schedule, so no island ever waits on another.
+ */
+public final class Migration {
+
+    public enum Topology {
+        // Island i sends to i + 1
+        RING,
+        // Islands row by row on a wrapped grid of ceil(sqrt(n)) columns, each sends to its
+        // right and lower neighbour
+        TORUS,
+        // Every island sends to every other one
+        FULLY_CONNECTED,
+        // One random other island per migration
+        RANDOM
+    }
+
+    private final Topology topology;
+    private final int interval;
+    private final int migrantCount;
+    private final int[][] targets;
+    private final Mailbox[] mailboxes;
+
+    public Migration(int islands, Topology topology, int interval, int migrantCount) {
+        if (interval < 1 || migrantCount < 0) {
+            throw new IllegalArgumentException("interval must be positive and migrantCount non-negative");
+        }
+        this.topology = topology;
+        this.interval = interval;
+        this.migrantCount = migrantCount;
+        this.targets = topology == Topology.RANDOM ? null : targets(islands, topology);
+        int[] inDegree = new int[islands];
+        if (targets != null) {
+            for (int[] list : targets) {
+                for (int target : list) {
+                    inDegree[target]++;
+                }
+            }
+        }
+        this.mailboxes = new Mailbox[islands];
+        for (int i = 0; i < islands; i++) {
+            // A random topology may hit the same island several times in a row
+            int senders = targets == null ? 4 : Math.max(1, inDegree[i]);
+            mailboxes[i] = new Mailbox(senders * Math.max(1, migrantCount));
+        }
+    }
+
+    // Ring migration of the single best tour, the historical default
+    public static Migration ring(int islands, int interval) {
+        return new Migration(islands, Topology.RING, interval, 1);
+    }
+
+    public Topology topology() {
+        return topology;
+    }
+
+    public int interval() {
+        return interval;
+    }
+
+    public int migrantCount() {
+        return migrantCount;
+    }
+
+    // Posts copies of the island's elites to the mailboxes of its targets
+    public void emigrate(int index, Island island) {
+        if (mailboxes.length < 2 || migrantCount == 0) {
+            return;
+        }
+        int[][] elites = island.elites(migrantCount);
+        if (targets != null) {
+            for (int target : targets[index]) {
+                for (int[] elite : elites) {
+                    mailboxes[target].post(elite);
+                }
+            }
+        } else {
+            RandomGenerator random = island.random();
+            int target = random.nextInt(mailboxes.length - 1);
+            if (target >= index) {
+                target++;
+            }
+            for (int[] elite : elites) {
+                mailboxes[target].post(elite);
+            }
+        }
+    }
+
+    // Moves everything waiting in the island's mailbox into its population.
+    // Returns the number of migrants accepted.
+    public int immigrate(int index, Island island) {
+        Mailbox mailbox = mailboxes[index];
+        int accepted = 0;
+        for (int slot = 0; slot < mailbox.capacity(); slot++) {
+            int[] migrant = mailbox.take(slot);
+            if (migrant != null && island.immigrate(migrant)) {
+                accepted++;
+            }
+        }
+        if (Metrics.ENABLED) {
+            Metrics.Counter.MIGRATIONS.add(accepted);
+        }
+        return accepted;
+    }
+
+    private static int[][] targets(int islands, Topology topology) {
+        int[][] result = new int[islands][];
+        int columns = (int) Math.ceil(Math.sqrt(islands));
+        for (int i = 0; i < islands; i++) {
+            switch (topology) {
+                case RING:
+                    result[i] = islands > 1 ? new int[]{(i + 1) % islands} : new int[0];
+                    break;
+                case TORUS: {
+                    int row = i / columns;
+                    int column = i % columns;
+                    // The last row may be partial: wrap within the cells present in this row and column,
+                    // so that every island still has one link in from the left and one from above
+                    int rowLength = Math.min(columns, islands - row * columns);
+                    int columnHeight = (islands - column + columns - 1) / columns;
+                    int right = row * columns + (column + 1) % rowLength;
+                    int down = ((row + 1) % columnHeight) * columns + column;
+                    if (right == i) {
+                        right = down;
+                    }
+                    if (down == i || down == right) {
+                        result[i] = right == i ? new int[0] : new int[]{right};
+                    } else {
+                        result[i] = new int[]{right, down};
+                    }
+                    break;
+                }
+                default: {
+                    result[i] = new int[islands - 1];
+                    for (int j = 0, k = 0; j < islands; j++) {
+                        if (j != i) {
+                            result[i][k++] = j;
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,165 @@
+package tsp;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The lab 1 zad1 method: the minimum spanning tree (Prim, O(n^2)) is walked
+ * depth-first from a random city, and the tour gets one pass of swap search
+ * in which each position in turn tries n random partners and takes the best
+ * improving swap. ceil(sqrt(n)) start cities are tried. Swaps are scored in
+ * O(1) instead of re-measuring the tour; an evaluation is one scored swap.
+ */
+public final class MstSwapSolver implements TspSolver {
+
+    @Override
+    public String name() {
+        return "mst";
+    }
+
+    @Override
+    public Solution solve(Instance instance, Budget budget, long seed, ProgressListener listener) {
+        Budget.Meter meter = budget.start(listener);
+        DistanceMatrix distances = DistanceMatrix.of(instance);
+        SplittableRandom random = new SplittableRandom(seed);
+        int n = instance.dimension();
+        if (n < 4) {
+            return Solution.of(Rng.randomTour(n, random), distances, meter);
+        }
+        int[] parent = spanningTree(distances);
+        int[] position = new int[n];
+        int[] best = null;
+        double bestLength = Double.POSITIVE_INFINITY;
+
+        int starts = (int) Math.ceil(Math.sqrt(n));
+        for (int start = 0; start < starts && (best == null || !meter.exhausted()); start++) {
+            int[] tour = preorder(parent, random.nextInt(n));
+            for (int i = 0; i < n; i++) {
+                position[tour[i]] = i;
+            }
+            double length = distances.tourLength(tour) + improve(distances, tour, position, random, meter);
+            if (length < bestLength) {
+                bestLength = length;
+                best = tour;
+                meter.improved(best, bestLength);
+            }
+        }
+        return Solution.of(best, distances, meter);
+    }
+
+    // Prim's algorithm on the full graph; parent[0] is -1
+    private static int[] spanningTree(DistanceMatrix distances) {
+        int n = distances.size();
+        double[] key = new double[n];
+        int[] parent = new int[n];
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(key, Double.MAX_VALUE);
+        key[0] = 0;
+        parent[0] = -1;
+        for (int count = 0; count < n; count++) {
+            int u = -1;
+            for (int v = 0; v < n; v++) {
+                if (!inTree[v] && (u < 0 || key[v] < key[u])) {
+                    u = v;
+                }
+            }
+            inTree[u] = true;
+            for (int v = 0; v < n; v++) {
+                if (!inTree[v]) {
+                    double weight = distances.get(u, v);
+                    if (weight < key[v]) {
+                        key[v] = weight;
+                        parent[v] = u;
+                    }
+                }
+            }
+        }
+        return parent;
+    }
+
+    // Depth-first order of the tree from the root, without recursion so that deep trees fit the stack
+    private static int[] preorder(int[] parent, int root) {
+        int n = parent.length;
+        // Adjacency in compressed rows: the edges of city v are at offset[v]..offset[v + 1]
+        int[] offset = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            if (parent[v] >= 0) {
+                offset[v + 1]++;
+                offset[parent[v] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offset[v + 1] += offset[v];
+        }
+        int[] adjacent = new int[offset[n]];
+        int[] fill = offset.clone();
+        for (int v = 0; v < n; v++) {
+            if (parent[v] >= 0) {
+                adjacent[fill[v]++] = parent[v];
+                adjacent[fill[parent[v]]++] = v;
+            }
+        }
+
+        int[] tour = new int[n];
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+        // Next edge to follow for each city on the stack
+        int[] next = offset.clone();
+        int size = 0;
+        int count = 0;
+        stack[size++] = root;
+        visited[root] = true;
+        tour[count++] = root;
+        while (size > 0) {
+            int v = stack[size - 1];
+            if (next[v] == offset[v + 1]) {
+                size--;
+                continue;
+            }
+            int u = adjacent[next[v]++];
+            if (!visited[u]) {
+                visited[u] = true;
+                tour[count++] = u;
+                stack[size++] = u;
+            }
+        }
+        return tour;
+    }
+
+    // One pass over the positions in place; returns the change in tour length
+    private static double improve(DistanceMatrix distances, int[] tour, int[] position, SplittableRandom random,
+                                  Budget.Meter meter) {
+        int n = tour.length;
+        double gain = 0;
+        // Swaps scored in this pass, for Metrics
+        long scored = 0;
+        pass:
+        for (int i = 0; i < n - 1; i++) {
+            int bestJ = -1;
+            double bestDelta = 0;
+            for (int k = 0; k < n; k++) {
+                int j = random.nextInt(n);
+                if (j == i) {
+                    continue;
+                }
+                if (meter.spend(1)) {
+                    break pass;
+                }
+                scored++;
+                double delta = SwapSearchSolver.swapDelta(distances, tour, i, j);
+                if (delta < bestDelta) {
+                    bestDelta = delta;
+                    bestJ = j;
+                }
+            }
+            if (bestJ >= 0) {
+                SwapSearchSolver.swap(tour, position, i, bestJ);
+                gain += bestDelta;
+            }
+        }
+        if (Metrics.ENABLED) {
+            Metrics.Counter.EVALUATIONS.add(scored);
+        }
+        return gain;
+    }
+}
@@ -0,0 +1,227 @@
+package tsp;
+
+/**
+ * Or-opt local search: moves a segment of 1 to 3 cities between two other
+ * adjacent cities, reversed or not. Insertion points are restricted to the
+ * candidate neighbours of the segment ends and gains are O(1); the move is
+ * carried out as two or three 2-opt flips on the tour. Driven by don't-look
+ * bits like TwoOptSearch; one instance is not thread-safe.
+ */
+public final class OrOptSearch implements LocalOptimizer {
+
+    public static final int MAX_SEGMENT = 3;
+
+    private static final double EPSILON = 1e-10;
+
+    private final DistanceMatrix distances;
+    private final int[][] neighbours;
+    private final int n;
+    private final boolean[] queued;
+    private final int[] queue;
+    private int queueHead;
+    private int queueSize;
+    private Tour tour;
+    private Tour arrayTour;
+    private long movesTried;
+    private long movesApplied;
+
+    public OrOptSearch(DistanceMatrix distances, int[][] neighbours) {
+        this.distances = distances;
+        this.neighbours = neighbours;
+        this.n = distances.size();
+        this.queued = new boolean[n];
+        this.queue = new int[n];
+    }
+
+    @Override
+    public double optimize(int[] order) {
+        if (arrayTour == null) {
+            arrayTour = Tour.of(order);
+        } else {
+            arrayTour.load(order);
+        }
+        double gain = optimize(arrayTour);
+        arrayTour.copyTo(order);
+        return gain;
+    }
+
+    @Override
+    public double optimize(Tour tour) {
+        if (n < MAX_SEGMENT + 5) {
+            return 0;
+        }
+        this.tour = tour;
+        for (int i = 0, city = 0; i < n; i++, city = tour.next(city)) {
+            push(city);
+        }
+
+        double gain = 0;
+        while (queueSize > 0) {
+            int city = poll();
+            double moveGain = improveCity(city);
+            if (moveGain > 0) {
+                gain += moveGain;
+                push(city);
+            }
+        }
+        this.tour = null;
+        return gain;
+    }
+
+    public long movesTried() {
+        return movesTried;
+    }
+
+    public long movesApplied() {
+        return movesApplied;
+    }
+
+    // Tries the segments that start at a and run 1..3 cities in either direction
+    private double improveCity(int a) {
+        for (int direction = 0; direction < 2; direction++) {
+            boolean forward = direction == 0;
+            int before = step(a, !forward);
+            int b = a;
+            int middle = -1;
+            for (int length = 1; length <= MAX_SEGMENT; length++) {
+                if (length > 1) {
+                    if (length == 3) {
+                        middle = b;
+                    }
+                    b = step(b, forward);
+                }
+                int after = step(b, forward);
+                // Gain of cutting the segment out and closing the gap
+                double removal = distances.get(before, a) + distances.get(b, after) - distances.get(before, after);
+                if (removal <= EPSILON) {
+                    continue;
+                }
+                double gain = insert(a, b, middle, before, after, removal);
+                if (gain > 0) {
+                    return gain;
+                }
+            }
+        }
+        return 0;
+    }
+
+    // Looks for an insertion of segment a..b next to a candidate of
+    // either end; applies the first improving one
+    private double insert(int a, int b, int middle, int before, int after, double removal) {
+        for (int end = 0; end < 2; end++) {
+            int e = end == 0 ? a : b;
+            int other = end == 0 ? b : a;
+            if (end == 1 && a == b) {
+                break;
+            }
+            for (int c : neighbours[e]) {
+                double ce = distances.get(c, e);
+                if (ce >= removal) {
+                    break;
+                }
+                if (c == a || c == b || c == middle) {
+                    continue;
+                }
+                for (int side = 0; side < 2; side++) {
+                    int w = side == 0 ? tour.next(c) : tour.prev(c);
+                    if (w == a || w == b || w == middle) {
+                        continue;
+                    }
+                    movesTried++;
+                    // Replace (c, w) with (c, e) and (other, w)
+                    double gain = removal + distances.get(c, w) - ce - distances.get(other, w);
+                    if (gain > EPSILON) {
+                        apply(a, b, before, after, c, w, e);
+                        movesApplied++;
+                        push(before);
+                        push(after);
+                        push(a);
+                        push(b);
+                        push(c);
+                        push(w);
+                        return gain;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Moves segment a..b (before is next to a, after next to b) between the
+     * adjacent cities c and w so that c ends up next to e (one of a, b).
+     * In tour order p s1..s2 nx .. u v, flipping (p,s1)(u,v) and then
+     * (p,u)(nx,s2) gives p nx .. u s2..s1 v; when v is p the same result
+     * comes from (u,v)(s2,nx) and then (s1,p)(v,nx). A third flip
+     * (u,s2)(s1,v) turns the segment around when u has to be next to s1.
+     */
+    private void apply(int a, int b, int before, int after, int c, int w, int e) {
+        int s1;
+        int s2;
+        int p;
+        int nx;
+        if (tour.prev(a) == before) {
+            s1 = a;
+            s2 = b;
+            p = before;
+            nx = after;
+        } else {
+            s1 = b;
+            s2 = a;
+            p = after;
+            nx = before;
+        }
+        int u;
+        int v;
+        if (tour.next(c) == w) {
+            u = c;
+            v = w;
+        } else {
+            u = w;
+            v = c;
+        }
+        // Whether u must end up next to s1
+        boolean uNextToS1 = u == c ? e == s1 : e != s1;
+        if (v != p) {
+            move(p, s1, u, v);
+            move(p, u, nx, s2);
+        } else {
+            move(u, v, s2, nx);
+            move(s1, p, v, nx);
+        }
+        if (uNextToS1) {
+            move(u, s2, s1, v);
+        }
+    }
+
+    // 2-opt move removing (t1, t2) and (t3, t4), where t2 follows t1 and t4
+    // follows t3 in the same direction, and adding (t1, t3) and (t2, t4)
+    private void move(int t1, int t2, int t3, int t4) {
+        if (tour.next(t1) == t2) {
+            tour.flip(t2, t3);
+        } else {
+            tour.flip(t3, t2);
+        }
+    }
+
+    private int step(int city, boolean forward) {
+        return forward ? tour.next(city) : tour.prev(city);
+    }
+
+    private void push(int city) {
+        if (!queued[city]) {
+            queued[city] = true;
+            int tail = queueHead + queueSize;
+            queue[tail >= n ? tail - n : tail] = city;
+            queueSize++;
+        }
+    }
+
+    private int poll() {
+        int city = queue[queueHead];
+        queueHead = queueHead + 1 == n ? 0 : queueHead + 1;
+        queueSize--;
+        queued[city] = false;
+        return city;
+    }
+}
@@ -0,0 +1,177 @@
+package tsp;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Best-improvement tabu search over the full 2-opt neighbourhood. Every
+ * iteration scores all n(n-1)/2 - 3 moves that change the tour in O(1)
+ * each; the rows i of the (i, j) triangle are split into blocks that run on
+ * the shared work-stealing pool, and the per-block winners are reduced as
+ * the tasks join. Ties are broken by (i, j), so the chosen move does not
+ * depend on the schedule.
+ */
+public final class ParallelTabuSearch {
+
+    // Roughly how many moves one task scores before it stops splitting
+    private static final int MOVES_PER_TASK = 1 << 15;
+
+    private final DistanceMatrix distances;
+    private final TabuSearch.Mode mode;
+    private final int tenure;
+    private long movesEvaluated;
+
+    public ParallelTabuSearch(DistanceMatrix distances, TabuSearch.Mode mode, int tenure) {
+        this.distances = distances;
+        this.mode = mode;
+        this.tenure = tenure;
+    }
+
+    // Searches from the given start tour (left untouched) and returns the best tour seen
+    public int[] run(int[] start, int maxIterationsWithoutImprovement) {
+        int n = start.length;
+        int[] tour = start.clone();
+        double currentLength = distances.tourLength(tour);
+        int[] best = tour.clone();
+        double bestLength = currentLength;
+
+        TabuList moves = mode == TabuSearch.Mode.POSITION ? new TabuList(tenure) : null;
+        EdgeTabu edges = mode == TabuSearch.Mode.EDGE ? new EdgeTabu(n) : null;
+        int rowsPerTask = Math.max(1, MOVES_PER_TASK / Math.max(n, 1));
+        int iteration = 0;
+        int iterationsWithoutImprovement = 0;
+
+        while (iterationsWithoutImprovement < maxIterationsWithoutImprovement) {
+            iteration++;
+            Scan scan = new Scan(tour, moves, edges, iteration, bestLength - currentLength, rowsPerTask, 0, n - 1);
+            Move move = n - 1 <= rowsPerTask ? scan.compute() : Scheduler.pool().invoke(scan);
+            movesEvaluated += Math.max(0, (long) n * (n - 1) / 2 - 3);
+
+            if (move == null) {
+                iterationsWithoutImprovement++;
+                continue;
+            }
+            if (moves != null) {
+                moves.add(move.i, move.j);
+            } else {
+                int until = iteration + tenure + 1;
+                edges.forbid(tour[move.i == 0 ? n - 1 : move.i - 1], tour[move.i], until);
+                edges.forbid(tour[move.j], tour[move.j == n - 1 ? 0 : move.j + 1], until);
+            }
+            TwoOpt.reverse(tour, move.i, move.j);
+            currentLength += move.delta;
+
+            if (currentLength < bestLength - 1e-9) {
+                System.arraycopy(tour, 0, best, 0, n);
+                bestLength = currentLength;
+                iterationsWithoutImprovement = 0;
+            } else {
+                iterationsWithoutImprovement++;
+            }
+        }
+        return best;
+    }
+
+    // Number of moves scored so far, over all runs
+    public long movesEvaluated() {
+        return movesEvaluated;
+    }
+
+    private static final class Move {
+        final int i;
+        final int j;
+        final double delta;
+
+        Move(int i, int j, double delta) {
+            this.i = i;
+            this.j = j;
+            this.delta = delta;
+        }
+
+        // The better of two block winners; either may be null
+        static Move better(Move a, Move b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            if (a.delta != b.delta) {
+                return a.delta < b.delta ? a : b;
+            }
+            return a.i < b.i || (a.i == b.i && a.j <= b.j) ? a : b;
+        }
+    }
+
+    // Best admissible move with first index in [lo, hi); the tour is read-only here
+    private final class Scan extends RecursiveTask<Move> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] tour;
+        private final TabuList moves;
+        private final EdgeTabu edges;
+        private final int iteration;
+        // A tabu move is admissible if its delta is below this (new best tour)
+        private final double aspiration;
+        private final int rowsPerTask;
+        private final int lo;
+        private final int hi;
+
+        Scan(int[] tour, TabuList moves, EdgeTabu edges, int iteration, double aspiration,
+             int rowsPerTask, int lo, int hi) {
+            this.tour = tour;
+            this.moves = moves;
+            this.edges = edges;
+            this.iteration = iteration;
+            this.aspiration = aspiration;
+            this.rowsPerTask = rowsPerTask;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Move compute() {
+            if (hi - lo > rowsPerTask) {
+                int mid = (lo + hi) >>> 1;
+                Scan left = new Scan(tour, moves, edges, iteration, aspiration, rowsPerTask, lo, mid);
+                Scan right = new Scan(tour, moves, edges, iteration, aspiration, rowsPerTask, mid, hi);
+                right.fork();
+                Move leftBest = left.compute();
+                return Move.better(leftBest, right.join());
+            }
+            int n = tour.length;
+            int bestI = -1;
+            int bestJ = -1;
+            double bestDelta = Double.MAX_VALUE;
+            for (int i = lo; i < hi; i++) {
+                int before = tour[i == 0 ? n - 1 : i - 1];
+                int first = tour[i];
+                double removedFirst = distances.get(before, first);
+                // Reversing all cities but one leaves the same cycle: (0, n-1), (0, n-2) and (1, n-1)
+                int lastJ = i == 0 ? n - 3 : i == 1 ? n - 2 : n - 1;
+                for (int j = i + 1; j <= lastJ; j++) {
+                    int last = tour[j];
+                    int after = tour[j == n - 1 ? 0 : j + 1];
+                    double delta = distances.get(before, last) + distances.get(first, after)
+                            - removedFirst - distances.get(last, after);
+                    if (delta >= bestDelta) {
+                        continue;
+                    }
+                    if (delta >= aspiration && isTabu(i, j, before, first, last, after)) {
+                        continue;
+                    }
+                    bestI = i;
+                    bestJ = j;
+                    bestDelta = delta;
+                }
+            }
+            return bestI < 0 ? null : new Move(bestI, bestJ, bestDelta);
+        }
+
+        private boolean isTabu(int i, int j, int before, int first, int last, int after) {
+            if (moves != null) {
+                return moves.contains(i, j);
+            }
+            return edges.isTabu(before, last, iteration) || edges.isTabu(first, after, iteration);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package tsp;
+
+/**
+ * A population stored as one flat block: individual i occupies
+ * [i * n, (i + 1) * n). Tours are copied in and out through int[] buffers,
+ * so a generation can be written into a second arena without allocating.
+ * Instances below 32768 cities are stored as short[] at half the memory.
+ */
+abstract class PopulationArena {
+
+    final int size;
+    final int n;
+
+    private PopulationArena(int size, int n) {
+        this.size = size;
+        this.n = n;
+        if ((long) size * n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Population too large for one arena: " + size + " x " + n);
+        }
+    }
+
+    static PopulationArena allocate(int size, int n) {
+        return n <= Short.MAX_VALUE ? new Shorts(size, n) : new Ints(size, n);
+    }
+
+    // Copies individual i into tour[0..n)
+    abstract void read(int i, int[] tour);
+
+    // Overwrites individual i with tour[0..n)
+    abstract void write(int i, int[] tour);
+
+    private static final class Ints extends PopulationArena {
+        private final int[] cities;
+
+        Ints(int size, int n) {
+            super(size, n);
+            this.cities = new int[size * n];
+        }
+
+        @Override
+        void read(int i, int[] tour) {
+            System.arraycopy(cities, i * n, tour, 0, n);
+        }
+
+        @Override
+        void write(int i, int[] tour) {
+            System.arraycopy(tour, 0, cities, i * n, n);
+        }
+    }
+
+    private static final class Shorts extends PopulationArena {
+        private final short[] cities;
+
+        Shorts(int size, int n) {
+            super(size, n);
+            this.cities = new short[size * n];
+        }
+
+        @Override
+        void read(int i, int[] tour) {
+            int offset = i * n;
+            for (int k = 0; k < n; k++) {
+                tour[k] = cities[offset + k];
+            }
+        }
+
+        @Override
+        void write(int i, int[] tour) {
+            int offset = i * n;
+            for (int k = 0; k < n; k++) {
+                cities[offset + k] = (short) tour[k];
+            }
+        }
+    }
+}
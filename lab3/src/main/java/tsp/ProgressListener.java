@@ -0,0 +1,16 @@
+package tsp;
+
+/**
+ * Receives every new best tour of a solver run. Calls may come from several
+ * worker threads, but never concurrently for the same run (Budget.Meter
+ * serialises them), and always with strictly decreasing lengths.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    ProgressListener NONE = (tour, length, evaluations) -> {
+    };
+
+    // The tour array belongs to the solver and is only valid during the call
+    void improved(int[] tour, double length, long evaluations);
+}
@@ -0,0 +1,48 @@
+package tsp;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Random streams derived from one master seed. Every worker (island, run)
+ * gets its own SplittableRandom split off the master, so nothing contends on
+ * a shared seed and a run with the same seed draws the same numbers.
+ */
+public final class Rng {
+
+    private Rng() {
+    }
+
+    // Master seed from args[index] when given, a fresh one otherwise
+    public static long seed(String[] args, int index) {
+        if (args.length > index) {
+            return Long.parseLong(args[index]);
+        }
+        return new SplittableRandom().nextLong();
+    }
+
+    // count independent streams; the i-th stream depends only on the seed and i
+    public static SplittableRandom[] streams(long seed, int count) {
+        SplittableRandom master = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[count];
+        for (int i = 0; i < count; i++) {
+            streams[i] = master.split();
+        }
+        return streams;
+    }
+
+    // Uniformly random order of the cities 0..n-1
+    public static int[] randomTour(int n, RandomGenerator random) {
+        int[] tour = new int[n];
+        for (int i = 0; i < n; i++) {
+            tour[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = tour[i];
+            tour[i] = tour[j];
+            tour[j] = t;
+        }
+        return tour;
+    }
+}
@@ -0,0 +1,30 @@
+package tsp;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The one work-stealing pool used for parallel work (island steps,
+ * neighbourhood scans). It is sized to the hardware and created on first use,
+ * so a run never spawns threads per epoch or per island.
+ */
+public final class Scheduler {
+
+    private static volatile ForkJoinPool pool;
+
+    private Scheduler() {
+    }
+
+    public static ForkJoinPool pool() {
+        ForkJoinPool p = pool;
+        if (p == null) {
+            synchronized (Scheduler.class) {
+                p = pool;
+                if (p == null) {
+                    p = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+                    pool = p;
+                }
+            }
+        }
+        return p;
+    }
+}
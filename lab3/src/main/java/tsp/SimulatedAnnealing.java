@@ -0,0 +1,104 @@
+package tsp;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Simulated annealing over random segment inversions (2-opt moves).
+ * A proposal is scored in O(1) from its four endpoints and the tour is only
+ * modified when the move is accepted; the current cost is kept incrementally.
+ * The tour backend is picked by size (see Tour.of).
+ */
+public final class SimulatedAnnealing {
+
+    private final DistanceMatrix distances;
+
+    public SimulatedAnnealing(DistanceMatrix distances) {
+        this.distances = distances;
+    }
+
+    // Anneals from the given start tour (left untouched) and returns the best tour seen
+    public int[] run(int[] start, double initialTemperature, double coolingRate, int epochLength,
+                     int maxEpochsWithoutImprovement, RandomGenerator random) {
+        return run(start, initialTemperature, coolingRate, epochLength, maxEpochsWithoutImprovement, random, null);
+    }
+
+    // As above, charging one evaluation per proposal to the meter (may be null)
+    // and stopping as soon as it is spent
+    public int[] run(int[] start, double initialTemperature, double coolingRate, int epochLength,
+                     int maxEpochsWithoutImprovement, RandomGenerator random, Budget.Meter meter) {
+        int n = start.length;
+        Tour current = Tour.of(start);
+        double currentCost = distances.tourLength(start);
+        int[] best = start.clone();
+        double bestCost = currentCost;
+        double temperature = initialTemperature;
+        int epochsWithoutImprovement = 0;
+
+        if (meter != null) {
+            meter.improved(best, bestCost);
+        }
+        // Proposals, acceptances and improving acceptances of the current epoch, for Metrics
+        int proposed = 0;
+        int accepted = 0;
+        int improving = 0;
+
+        annealing:
+        while (epochsWithoutImprovement < maxEpochsWithoutImprovement) {
+            for (int step = 0; step < epochLength; step++) {
+                if (meter != null && meter.spend(1)) {
+                    break annealing;
+                }
+                proposed++;
+                int a = random.nextInt(n);
+                int b = random.nextInt(n);
+                while (b == a) {
+                    b = random.nextInt(n);
+                }
+                // Replace (a, next a) and (b, next b) with (a, b) and (next a, next b)
+                int nextA = current.next(a);
+                int nextB = current.next(b);
+                double delta = distances.get(a, b) + distances.get(nextA, nextB)
+                        - distances.get(a, nextA) - distances.get(b, nextB);
+                if (delta < 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                    current.flip(nextA, b);
+                    currentCost += delta;
+                    accepted++;
+                    if (delta < 0) {
+                        improving++;
+                    }
+
+                    if (currentCost < bestCost) {
+                        current.copyTo(best);
+                        bestCost = currentCost;
+                        epochsWithoutImprovement = 0;
+                        if (meter != null) {
+                            meter.improved(best, bestCost);
+                        }
+                    }
+                }
+            }
+            if (Metrics.ENABLED) {
+                recordEpoch(temperature, proposed, accepted, improving);
+            }
+            proposed = 0;
+            accepted = 0;
+            improving = 0;
+            epochsWithoutImprovement++;
+            temperature *= coolingRate;
+        }
+        // The epoch the meter cut short
+        if (Metrics.ENABLED && proposed > 0) {
+            recordEpoch(temperature, proposed, accepted, improving);
+        }
+
+        return best;
+    }
+
+    private static void recordEpoch(double temperature, int proposed, int accepted, int improving) {
+        Metrics.Counter.EVALUATIONS.add(proposed);
+        Metrics.Counter.ACCEPTED_MOVES.add(accepted);
+        Metrics.Counter.IMPROVING_MOVES.add(improving);
+        Metrics.Histogram.SA_PROPOSED_BY_TEMPERATURE.record(temperature, proposed);
+        Metrics.Histogram.SA_ACCEPTED_BY_TEMPERATURE.record(temperature, accepted);
+    }
+}
@@ -0,0 +1,41 @@
+package tsp;
+
+/**
+ * Outcome of a solver run: the best tour, its length and what the run spent.
+ */
+public final class Solution {
+
+    private final int[] tour;
+    private final double length;
+    private final long evaluations;
+    private final long elapsedNanos;
+
+    public Solution(int[] tour, double length, long evaluations, long elapsedNanos) {
+        this.tour = tour;
+        this.length = length;
+        this.evaluations = evaluations;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // The best tour found; owned by the caller
+    public int[] tour() {
+        return tour;
+    }
+
+    public double length() {
+        return length;
+    }
+
+    public long evaluations() {
+        return evaluations;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Best tour of a finished run, with the spending read from its meter
+    static Solution of(int[] tour, DistanceMatrix distances, Budget.Meter meter) {
+        return new Solution(tour, distances.tourLength(tour), meter.evaluations(), meter.elapsedNanos());
+    }
+}
@@ -0,0 +1,36 @@
+package tsp;
+
+import java.util.List;
+
+/**
+ * The solvers with the parameters of their lab drivers, by name.
+ */
+public final class Solvers {
+
+    private Solvers() {
+    }
+
+    public static List<TspSolver> all() {
+        return List.of(
+                new MstSwapSolver(),
+                SwapSearchSolver.sampled(),
+                SwapSearchSolver.exhaustive(),
+                new AnnealingSolver(),
+                new TabuSolver(),
+                GeneticSolver.plain(),
+                GeneticSolver.memetic());
+    }
+
+    public static TspSolver byName(String name) {
+        for (TspSolver solver : all()) {
+            if (solver.name().equals(name)) {
+                return solver;
+            }
+        }
+        throw new IllegalArgumentException("Unknown solver: " + name + " (known: " + names() + ")");
+    }
+
+    public static List<String> names() {
+        return all().stream().map(TspSolver::name).toList();
+    }
+}
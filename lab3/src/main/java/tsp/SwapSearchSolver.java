@@ -0,0 +1,151 @@
+package tsp;
+
+import java.util.SplittableRandom;
+
+/**
+ * The lab 1 local search: from a random tour, for each position in turn try
+ * up to `samples` random swaps with another position and take the first one
+ * that shortens the tour; the descent ends at the first position where none
+ * does. With candidate lists the partner is the position just after one of
+ * the city's near neighbours. The search restarts from fresh random tours n
+ * times. Swaps are scored in O(1) instead of re-measuring the tour; an
+ * evaluation is one scored swap.
+ */
+public final class SwapSearchSolver implements TspSolver {
+
+    private final String name;
+    // Swaps tried per position; 0 means n
+    private final int samples;
+    // Candidate list size, 0 for uniformly random partners
+    private final int neighbours;
+
+    public SwapSearchSolver(String name, int samples, int neighbours) {
+        this.name = name;
+        this.samples = samples;
+        this.neighbours = neighbours;
+    }
+
+    // lab1/zad2: 10 random partners per position
+    public static SwapSearchSolver sampled() {
+        return new SwapSearchSolver("swap", 10, 0);
+    }
+
+    // lab1/zad3: n random partners per position
+    public static SwapSearchSolver exhaustive() {
+        return new SwapSearchSolver("swap-n", 0, 0);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Solution solve(Instance instance, Budget budget, long seed, ProgressListener listener) {
+        Budget.Meter meter = budget.start(listener);
+        DistanceMatrix distances = DistanceMatrix.of(instance);
+        SplittableRandom random = new SplittableRandom(seed);
+        int n = instance.dimension();
+        int[][] candidates = neighbours > 0 ? CandidateLists.nearest(instance, neighbours) : null;
+        int tries = samples > 0 ? samples : n;
+        int[] position = new int[n];
+        int[] best = null;
+        double bestLength = Double.POSITIVE_INFINITY;
+
+        for (int start = 0; start < n && (best == null || !meter.exhausted()); start++) {
+            int[] tour = Rng.randomTour(n, random);
+            for (int i = 0; i < n; i++) {
+                position[tour[i]] = i;
+            }
+            double length = distances.tourLength(tour) + descend(distances, tour, position, candidates, tries, random, meter);
+            if (length < bestLength) {
+                bestLength = length;
+                best = tour;
+                meter.improved(best, bestLength);
+            }
+        }
+        return Solution.of(best, distances, meter);
+    }
+
+    // Runs one descent in place and returns the change in tour length
+    private static double descend(DistanceMatrix distances, int[] tour, int[] position, int[][] candidates,
+                                  int tries, SplittableRandom random, Budget.Meter meter) {
+        int n = tour.length;
+        double gain = 0;
+        if (n < 4) {
+            return 0;
+        }
+        // Swaps scored in this descent, for Metrics
+        long scored = 0;
+        descent:
+        for (int i = 0; i < n - 1; i++) {
+            boolean improved = false;
+            for (int k = 0; k < tries; k++) {
+                int j = candidates == null ? random.nextInt(n) : candidatePosition(tour, position, candidates[tour[i]], random);
+                if (j == i) {
+                    continue;
+                }
+                if (meter.spend(1)) {
+                    break descent;
+                }
+                scored++;
+                double delta = swapDelta(distances, tour, i, j);
+                if (delta < 0) {
+                    swap(tour, position, i, j);
+                    gain += delta;
+                    improved = true;
+                    break;
+                }
+            }
+            if (!improved) {
+                break;
+            }
+        }
+        if (Metrics.ENABLED) {
+            Metrics.Counter.EVALUATIONS.add(scored);
+        }
+        return gain;
+    }
+
+    // Position right after a random near neighbour of the city, so the swap puts them side by side
+    private static int candidatePosition(int[] tour, int[] position, int[] near, SplittableRandom random) {
+        int j = position[near[random.nextInt(near.length)]] + 1;
+        return j == tour.length ? 0 : j;
+    }
+
+    // Change in tour length from exchanging the cities at positions i and j (n >= 4)
+    static double swapDelta(DistanceMatrix distances, int[] tour, int i, int j) {
+        int n = tour.length;
+        if (i > j) {
+            int t = i;
+            i = j;
+            j = t;
+        }
+        int a = tour[i];
+        int b = tour[j];
+        int beforeA = tour[i == 0 ? n - 1 : i - 1];
+        int afterA = tour[i + 1];
+        int beforeB = tour[j - 1];
+        int afterB = tour[j == n - 1 ? 0 : j + 1];
+        if (j == i + 1) {
+            // ... beforeA a b afterB ...
+            return distances.get(beforeA, b) + distances.get(a, afterB)
+                    - distances.get(beforeA, a) - distances.get(b, afterB);
+        }
+        if (i == 0 && j == n - 1) {
+            // b a are neighbours across the end of the array: ... beforeB b | a afterA ...
+            return distances.get(beforeB, a) + distances.get(b, afterA)
+                    - distances.get(beforeB, b) - distances.get(a, afterA);
+        }
+        return distances.get(beforeA, b) + distances.get(b, afterA) + distances.get(beforeB, a) + distances.get(a, afterB)
+                - distances.get(beforeA, a) - distances.get(a, afterA) - distances.get(beforeB, b) - distances.get(b, afterB);
+    }
+
+    static void swap(int[] tour, int[] position, int i, int j) {
+        int a = tour[i];
+        tour[i] = tour[j];
+        tour[j] = a;
+        position[tour[i]] = i;
+        position[tour[j]] = j;
+    }
+}
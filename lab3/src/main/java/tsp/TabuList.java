@@ -0,0 +1,117 @@
+package tsp;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-tenure tabu memory of moves encoded as longs. The last tenure moves
+ * are kept in a ring buffer (true FIFO expiry) and mirrored in an
+ * open-addressing hash set, so add and contains are O(1) and allocate nothing.
+ */
+public final class TabuList {
+
+    private final long[] ring;
+    private int head;
+    private int size;
+
+    // Linear probing; count[slot] == 0 marks an empty slot. A move added again
+    // before it expired is counted twice and stays tabu until both copies expire.
+    private final long[] keys;
+    private final int[] count;
+    private final int mask;
+
+    public TabuList(int tenure) {
+        this.ring = new long[Math.max(tenure, 0)];
+        int capacity = Integer.highestOneBit(Math.max(4, 2 * ring.length - 1)) << 1;
+        this.keys = new long[capacity];
+        this.count = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    // Encodes a move given by two ints, e.g. the segment bounds of a 2-opt move
+    public static long move(int first, int second) {
+        return ((long) first << 32) | (second & 0xFFFFFFFFL);
+    }
+
+    public int tenure() {
+        return ring.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int first, int second) {
+        return contains(move(first, second));
+    }
+
+    public boolean contains(long move) {
+        for (int slot = hash(move); count[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void add(int first, int second) {
+        add(move(first, second));
+    }
+
+    // Makes the move tabu; once the list is full the oldest move expires
+    public void add(long move) {
+        if (ring.length == 0) {
+            return;
+        }
+        if (size == ring.length) {
+            remove(ring[head]);
+        } else {
+            size++;
+        }
+        ring[head] = move;
+        if (++head == ring.length) {
+            head = 0;
+        }
+        insert(move);
+    }
+
+    public void clear() {
+        Arrays.fill(count, 0);
+        head = 0;
+        size = 0;
+    }
+
+    private void insert(long move) {
+        int slot = hash(move);
+        while (count[slot] != 0 && keys[slot] != move) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = move;
+        count[slot]++;
+    }
+
+    private void remove(long move) {
+        int slot = hash(move);
+        while (keys[slot] != move || count[slot] == 0) {
+            slot = (slot + 1) & mask;
+        }
+        if (--count[slot] > 0) {
+            return;
+        }
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int hole = slot;
+        for (int next = (hole + 1) & mask; count[next] != 0; next = (next + 1) & mask) {
+            int home = hash(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                count[hole] = count[next];
+                count[next] = 0;
+                hole = next;
+            }
+        }
+    }
+
+    private int hash(long move) {
+        long h = move * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,144 @@
+package tsp;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Tabu search over 2-opt moves. Every iteration samples one move per tour
+ * position, either with a random second endpoint or towards one of the
+ * city's candidate neighbours, scores it in O(1) and applies the best
+ * admissible one even when it makes the tour longer.
+ * A tabu move is still admissible when it would give a new best tour (aspiration).
+ */
+public final class TabuSearch {
+
+    public enum Mode {
+        // The (start, end) position pair of a recently applied move is tabu
+        POSITION,
+        // Re-adding an edge removed within the last tenure iterations is tabu
+        EDGE
+    }
+
+    private final DistanceMatrix distances;
+    private final int[][] candidates;
+    private final Mode mode;
+    private final int tenure;
+    private long movesEvaluated;
+
+    // candidates may be null, then the second endpoint is drawn uniformly
+    public TabuSearch(DistanceMatrix distances, int[][] candidates, Mode mode, int tenure) {
+        this.distances = distances;
+        this.candidates = candidates;
+        this.mode = mode;
+        this.tenure = tenure;
+    }
+
+    // Searches from the given start tour (left untouched) and returns the best tour seen
+    public int[] run(int[] start, int maxIterationsWithoutImprovement, RandomGenerator random) {
+        int n = start.length;
+        int[] tour = start.clone();
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) {
+            position[tour[i]] = i;
+        }
+        double currentLength = distances.tourLength(tour);
+        int[] best = tour.clone();
+        double bestLength = currentLength;
+
+        TabuList moves = mode == Mode.POSITION ? new TabuList(tenure) : null;
+        EdgeTabu edges = mode == Mode.EDGE ? new EdgeTabu(n) : null;
+        int iteration = 0;
+        int iterationsWithoutImprovement = 0;
+
+        while (iterationsWithoutImprovement < maxIterationsWithoutImprovement) {
+            iteration++;
+            long scoredBefore = movesEvaluated;
+            int tabuHits = 0;
+            int bestStart = -1;
+            int bestEnd = -1;
+            double bestDelta = Double.MAX_VALUE;
+
+            for (int i = 0; i < n - 1; i++) {
+                int first;
+                int last;
+                if (candidates == null) {
+                    int j = random.nextInt(n);
+                    first = Math.min(i, j);
+                    last = Math.max(i, j);
+                } else {
+                    // Reversing first..last makes the city at i adjacent to the chosen candidate
+                    int[] near = candidates[tour[i]];
+                    int other = position[near[random.nextInt(near.length)]];
+                    first = Math.min(i, other) + 1;
+                    last = Math.max(i, other);
+                }
+                // Reversing all cities but at most one, (0, n-1), (0, n-2) or (1, n-1), keeps the cycle
+                if (first >= last || last - first >= n - 2) {
+                    continue;
+                }
+                movesEvaluated++;
+                double delta = TwoOpt.delta(tour, first, last, distances);
+                if (delta >= bestDelta) {
+                    continue;
+                }
+                boolean aspiration = currentLength + delta < bestLength;
+                if (!aspiration && isTabu(tour, first, last, moves, edges, iteration)) {
+                    tabuHits++;
+                    continue;
+                }
+                bestStart = first;
+                bestEnd = last;
+                bestDelta = delta;
+            }
+
+            if (Metrics.ENABLED) {
+                Metrics.Counter.EVALUATIONS.add(movesEvaluated - scoredBefore);
+                Metrics.Counter.TABU_HITS.add(tabuHits);
+            }
+            if (bestStart < 0) {
+                iterationsWithoutImprovement++;
+                continue;
+            }
+            if (Metrics.ENABLED) {
+                Metrics.Counter.ACCEPTED_MOVES.increment();
+                if (bestDelta < 0) {
+                    Metrics.Counter.IMPROVING_MOVES.increment();
+                }
+            }
+            if (moves != null) {
+                moves.add(bestStart, bestEnd);
+            } else {
+                // The two removed edges may not come back for tenure iterations
+                int until = iteration + tenure + 1;
+                edges.forbid(tour[bestStart == 0 ? n - 1 : bestStart - 1], tour[bestStart], until);
+                edges.forbid(tour[bestEnd], tour[bestEnd == n - 1 ? 0 : bestEnd + 1], until);
+            }
+            TwoOpt.reversePath(tour, position, bestStart, bestEnd);
+            currentLength += bestDelta;
+
+            if (currentLength < bestLength - 1e-9) {
+                System.arraycopy(tour, 0, best, 0, n);
+                bestLength = currentLength;
+                iterationsWithoutImprovement = 0;
+            } else {
+                iterationsWithoutImprovement++;
+            }
+        }
+        return best;
+    }
+
+    // Number of candidate moves scored so far, over all runs
+    public long movesEvaluated() {
+        return movesEvaluated;
+    }
+
+    private static boolean isTabu(int[] tour, int first, int last, TabuList moves, EdgeTabu edges, int iteration) {
+        if (moves != null) {
+            return moves.contains(first, last);
+        }
+        int n = tour.length;
+        int before = tour[first == 0 ? n - 1 : first - 1];
+        int after = tour[last == n - 1 ? 0 : last + 1];
+        // The move adds (before, tour[last]) and (tour[first], after)
+        return edges.isTabu(before, tour[last], iteration) || edges.isTabu(tour[first], after, iteration);
+    }
+}
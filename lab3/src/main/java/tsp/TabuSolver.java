@@ -0,0 +1,45 @@
+package tsp;
+
+import java.util.SplittableRandom;
+
+/**
+ * Candidate-list tabu search with cached move values (IncrementalTabuSearch)
+ * from a random tour. An evaluation is one scored 2-opt move.
+ */
+public final class TabuSolver implements TspSolver {
+
+    private final int tenure;
+    private final double patienceFactor;
+    private final int neighbours;
+
+    // The parameters of the lab 2 driver
+    public TabuSolver() {
+        this(7, 0.1, CandidateLists.DEFAULT_SIZE);
+    }
+
+    // patienceFactor: iterations without improvement before stopping, times n
+    public TabuSolver(int tenure, double patienceFactor, int neighbours) {
+        this.tenure = tenure;
+        this.patienceFactor = patienceFactor;
+        this.neighbours = neighbours;
+    }
+
+    @Override
+    public String name() {
+        return "tabu";
+    }
+
+    @Override
+    public Solution solve(Instance instance, Budget budget, long seed, ProgressListener listener) {
+        Budget.Meter meter = budget.start(listener);
+        DistanceMatrix distances = DistanceMatrix.of(instance);
+        int n = instance.dimension();
+        int[] start = Rng.randomTour(n, new SplittableRandom(seed));
+        if (n < 4) {
+            return Solution.of(start, distances, meter);
+        }
+        IncrementalTabuSearch search = new IncrementalTabuSearch(distances, CandidateLists.nearest(instance, neighbours), tenure);
+        int[] best = search.run(start, Math.max(1, (int) (patienceFactor * n)), meter);
+        return Solution.of(best, distances, meter);
+    }
+}
@@ -0,0 +1,37 @@
+package tsp;
+
+/**
+ * A cyclic tour that supports 2-opt style path reversal. Implementations may
+ * reverse the complementary path instead of the requested one, which leaves
+ * the same cycle with the opposite orientation, so callers must re-read
+ * next/prev after every flip instead of caching them.
+ */
+public interface Tour {
+
+    // From this size on, of() picks the two-level list
+    int TWO_LEVEL_THRESHOLD = 5000;
+
+    // The array representation for small instances, the two-level list for large ones
+    static Tour of(int[] order) {
+        return order.length >= TWO_LEVEL_THRESHOLD ? new TwoLevelListTour(order) : new ArrayTour(order);
+    }
+
+    int size();
+
+    int next(int city);
+
+    int prev(int city);
+
+    // Whether b lies on the path from a forward to c, both ends included
+    boolean between(int a, int b, int c);
+
+    // Reverses the path from a forward to b. Removing (prev a, a) and (b, next b)
+    // and adding (prev a, b) and (a, next b) is the 2-opt move.
+    void flip(int a, int b);
+
+    // Replaces the tour with the given city order
+    void load(int[] order);
+
+    // Writes the cities in tour order; which city comes first is up to the implementation
+    void copyTo(int[] order);
+}
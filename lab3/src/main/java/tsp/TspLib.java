@@ -0,0 +1,285 @@
+package tsp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * TSPLIB reader for coordinate instances. The file is memory-mapped and the
+ * numbers are parsed straight from the bytes into the coordinate arrays,
+ * which are presized from DIMENSION, so no objects are created per line.
+ * Signs, decimals and exponents are accepted; node ids are skipped and
+ * cities are numbered in file order. load() goes through InstanceCache so
+ * repeated runs skip the text entirely.
+ */
+public final class TspLib {
+
+    private static final String DEFAULT_EDGE_WEIGHT_TYPE = "EUC_2D";
+    // Capacity used when the header has no DIMENSION
+    private static final int INITIAL_CAPACITY = 1024;
+    // Powers of ten that are exact doubles
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private TspLib() {
+    }
+
+    // Loads through InstanceCache, which parses and caches the file on first use
+    public static Instance load(Path path) throws IOException {
+        return InstanceCache.load(path);
+    }
+
+    // Parses the .tsp file itself, bypassing the cache
+    public static Instance parse(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to map: " + path + " (" + size + " bytes)");
+            }
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new Parser(bytes, defaultName(path)).parse();
+        }
+    }
+
+    // File name without its extension
+    private static String defaultName(Path path) {
+        String file = path.getFileName().toString();
+        int dot = file.lastIndexOf('.');
+        return dot > 0 ? file.substring(0, dot) : file;
+    }
+
+    private static final class Parser {
+
+        private final ByteBuffer bytes;
+        private final int limit;
+        private int pos;
+
+        private String name;
+        private String edgeWeightType = DEFAULT_EDGE_WEIGHT_TYPE;
+        private int dimension = -1;
+
+        Parser(ByteBuffer bytes, String name) {
+            this.bytes = bytes;
+            this.limit = bytes.limit();
+            this.name = name;
+        }
+
+        Instance parse() throws IOException {
+            while (pos < limit) {
+                skipBlank();
+                if (pos >= limit) {
+                    break;
+                }
+                int keyStart = pos;
+                while (pos < limit && !isSpace(bytes.get(pos)) && bytes.get(pos) != ':') {
+                    pos++;
+                }
+                int keyEnd = pos;
+                if (matches(keyStart, keyEnd, "NODE_COORD_SECTION")) {
+                    return coordinates();
+                }
+                if (matches(keyStart, keyEnd, "EOF")) {
+                    break;
+                }
+                if (matches(keyStart, keyEnd, "EDGE_WEIGHT_SECTION")) {
+                    throw new IOException("Explicit edge weights are not supported, only coordinates");
+                }
+                if (matches(keyStart, keyEnd, "NAME")) {
+                    name = value();
+                } else if (matches(keyStart, keyEnd, "EDGE_WEIGHT_TYPE")) {
+                    edgeWeightType = value();
+                } else if (matches(keyStart, keyEnd, "DIMENSION")) {
+                    String value = value();
+                    try {
+                        dimension = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Bad DIMENSION: " + value, e);
+                    }
+                } else {
+                    skipLine();
+                }
+            }
+            throw new IOException("No NODE_COORD_SECTION found");
+        }
+
+        // Reads "id x y" lines until EOF, another keyword or the end of the file
+        private Instance coordinates() throws IOException {
+            skipLine();
+            int capacity = dimension > 0 ? dimension : INITIAL_CAPACITY;
+            double[] xs = new double[capacity];
+            double[] ys = new double[capacity];
+            int count = 0;
+            while (true) {
+                skipBlank();
+                if (pos >= limit || isLetter(bytes.get(pos))) {
+                    break;
+                }
+                if (count == capacity) {
+                    capacity = capacity * 2;
+                    xs = Arrays.copyOf(xs, capacity);
+                    ys = Arrays.copyOf(ys, capacity);
+                }
+                number();
+                xs[count] = number();
+                ys[count] = number();
+                count++;
+                // Anything after x and y (a third coordinate) is ignored
+                skipLine();
+            }
+            if (dimension > 0 && count != dimension) {
+                throw new IOException("DIMENSION is " + dimension + " but " + count + " nodes were read");
+            }
+            if (count < capacity) {
+                xs = Arrays.copyOf(xs, count);
+                ys = Arrays.copyOf(ys, count);
+            }
+            return new Instance(name, edgeWeightType, xs, ys);
+        }
+
+        /**
+         * Parses a decimal number such as -12, 3.25 or 1.5e+03. Mantissas of
+         * up to 53 bits with a power of ten up to 22 are converted exactly by
+         * one multiplication or division; anything else falls back to
+         * Double.parseDouble, so the result always equals what it returns.
+         */
+        private double number() throws IOException {
+            skipSpaces();
+            int start = pos;
+            boolean negative = false;
+            if (pos < limit && (bytes.get(pos) == '-' || bytes.get(pos) == '+')) {
+                negative = bytes.get(pos) == '-';
+                pos++;
+            }
+            long mantissa = 0;
+            int exponent = 0;
+            boolean digits = false;
+            boolean truncated = false;
+            for (; pos < limit && isDigit(bytes.get(pos)); pos++) {
+                digits = true;
+                if (mantissa < MAX_EXACT_MANTISSA) {
+                    mantissa = mantissa * 10 + (bytes.get(pos) - '0');
+                } else {
+                    truncated = true;
+                    exponent++;
+                }
+            }
+            if (pos < limit && bytes.get(pos) == '.') {
+                pos++;
+                for (; pos < limit && isDigit(bytes.get(pos)); pos++) {
+                    digits = true;
+                    if (mantissa < MAX_EXACT_MANTISSA) {
+                        mantissa = mantissa * 10 + (bytes.get(pos) - '0');
+                        exponent--;
+                    } else {
+                        truncated = true;
+                    }
+                }
+            }
+            if (!digits) {
+                throw new IOException("Expected a number at byte " + start);
+            }
+            if (pos < limit && (bytes.get(pos) == 'e' || bytes.get(pos) == 'E')) {
+                pos++;
+                boolean negativeExponent = false;
+                if (pos < limit && (bytes.get(pos) == '-' || bytes.get(pos) == '+')) {
+                    negativeExponent = bytes.get(pos) == '-';
+                    pos++;
+                }
+                if (pos >= limit || !isDigit(bytes.get(pos))) {
+                    throw new IOException("Bad exponent at byte " + start);
+                }
+                int value = 0;
+                for (; pos < limit && isDigit(bytes.get(pos)); pos++) {
+                    if (value < 100_000) {
+                        value = value * 10 + (bytes.get(pos) - '0');
+                    }
+                }
+                exponent += negativeExponent ? -value : value;
+            }
+            if (truncated || mantissa > MAX_EXACT_MANTISSA || exponent > 22 || exponent < -22) {
+                return Double.parseDouble(text(start, pos));
+            }
+            double value = exponent >= 0
+                    ? mantissa * POWERS_OF_TEN[exponent]
+                    : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+
+        // Rest of the line after an optional ':', trimmed
+        private String value() {
+            skipSpaces();
+            if (pos < limit && bytes.get(pos) == ':') {
+                pos++;
+                skipSpaces();
+            }
+            int start = pos;
+            skipLine();
+            int end = pos;
+            while (end > start && isSpace(bytes.get(end - 1))) {
+                end--;
+            }
+            return text(start, end);
+        }
+
+        private boolean matches(int start, int end, String keyword) {
+            if (end - start != keyword.length()) {
+                return false;
+            }
+            for (int i = 0; i < keyword.length(); i++) {
+                if (bytes.get(start + i) != keyword.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String text(int start, int end) {
+            byte[] copy = new byte[end - start];
+            bytes.get(start, copy);
+            return new String(copy, StandardCharsets.US_ASCII);
+        }
+
+        // Spaces and tabs within the line
+        private void skipSpaces() {
+            while (pos < limit && (bytes.get(pos) == ' ' || bytes.get(pos) == '\t')) {
+                pos++;
+            }
+        }
+
+        // All whitespace including line ends
+        private void skipBlank() {
+            while (pos < limit && isSpace(bytes.get(pos))) {
+                pos++;
+            }
+        }
+
+        // Moves past the next line end
+        private void skipLine() {
+            while (pos < limit && bytes.get(pos) != '\n') {
+                pos++;
+            }
+            if (pos < limit) {
+                pos++;
+            }
+        }
+
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+        }
+
+        private static boolean isDigit(byte b) {
+            return b >= '0' && b <= '9';
+        }
+
+        private static boolean isLetter(byte b) {
+            return (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z');
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package tsp;
+
+/**
+ * Common entry point of the algorithms. A solver makes one run of its method
+ * with its own parameters and stops early when the budget is spent; what
+ * counts as an evaluation is documented by each solver. The same seed gives
+ * the same run unless the budget cuts it short.
+ */
+public interface TspSolver {
+
+    String name();
+
+    Solution solve(Instance instance, Budget budget, long seed, ProgressListener listener);
+}
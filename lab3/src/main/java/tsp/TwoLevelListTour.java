@@ -0,0 +1,278 @@
+package tsp;
+
+/**
+ * Two-level doubly-linked list tour. Cities are grouped into about sqrt(n)
+ * segments; each segment is a linked run of cities with a reversal bit, and
+ * the segments form a cyclic list of their own. A flip splits at most two
+ * segments at the path ends and then reverses whole segments by toggling
+ * their bits and relinking them, so it costs O(sqrt(n)) instead of O(n).
+ * Splits add segments; once there are twice as many as intended the list is
+ * rebuilt from scratch, which keeps the amortised cost per flip at O(sqrt(n)).
+ */
+public final class TwoLevelListTour implements Tour {
+
+    private final int n;
+    private final int target;
+
+    // Per city: owning segment, order key inside it and links in internal order (-1 at the ends)
+    private final int[] segment;
+    private final int[] key;
+    private final int[] succ;
+    private final int[] pred;
+
+    // Per segment: internal ends, reversal bit, rank in the segment list and links
+    private final int[] head;
+    private final int[] tail;
+    private final boolean[] reversed;
+    private final int[] rank;
+    private final int[] nextSegment;
+    private final int[] prevSegment;
+    private final int[] freeSegments;
+    private int freeCount;
+    private int segmentCount;
+    // Segment that gets rank 0
+    private int origin;
+
+    private final int[] run;
+    private final int[] scratch;
+
+    public TwoLevelListTour(int[] order) {
+        this.n = order.length;
+        this.target = Math.max(8, (int) Math.sqrt(n));
+        this.segment = new int[n];
+        this.key = new int[n];
+        this.succ = new int[n];
+        this.pred = new int[n];
+        int capacity = 2 * target + 4;
+        this.head = new int[capacity];
+        this.tail = new int[capacity];
+        this.reversed = new boolean[capacity];
+        this.rank = new int[capacity];
+        this.nextSegment = new int[capacity];
+        this.prevSegment = new int[capacity];
+        this.freeSegments = new int[capacity];
+        this.run = new int[capacity];
+        this.scratch = new int[n];
+        load(order);
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public void load(int[] order) {
+        int segments = (n + target - 1) / target;
+        for (int s = 0; s < segments; s++) {
+            int from = s * target;
+            int to = Math.min(n, from + target);
+            for (int i = from; i < to; i++) {
+                int city = order[i];
+                segment[city] = s;
+                key[city] = i - from;
+                succ[city] = i + 1 < to ? order[i + 1] : -1;
+                pred[city] = i > from ? order[i - 1] : -1;
+            }
+            head[s] = order[from];
+            tail[s] = order[to - 1];
+            reversed[s] = false;
+            rank[s] = s;
+            nextSegment[s] = s + 1 == segments ? 0 : s + 1;
+            prevSegment[s] = s == 0 ? segments - 1 : s - 1;
+        }
+        segmentCount = segments;
+        origin = 0;
+        freeCount = 0;
+        for (int s = head.length - 1; s >= segments; s--) {
+            freeSegments[freeCount++] = s;
+        }
+    }
+
+    @Override
+    public void copyTo(int[] order) {
+        int i = 0;
+        int s = origin;
+        for (int k = 0; k < segmentCount; k++) {
+            if (reversed[s]) {
+                for (int city = tail[s]; city >= 0; city = pred[city]) {
+                    order[i++] = city;
+                }
+            } else {
+                for (int city = head[s]; city >= 0; city = succ[city]) {
+                    order[i++] = city;
+                }
+            }
+            s = nextSegment[s];
+        }
+    }
+
+    @Override
+    public int next(int city) {
+        int s = segment[city];
+        if (reversed[s]) {
+            return city == head[s] ? first(nextSegment[s]) : pred[city];
+        }
+        return city == tail[s] ? first(nextSegment[s]) : succ[city];
+    }
+
+    @Override
+    public int prev(int city) {
+        int s = segment[city];
+        if (reversed[s]) {
+            return city == tail[s] ? last(prevSegment[s]) : succ[city];
+        }
+        return city == head[s] ? last(prevSegment[s]) : pred[city];
+    }
+
+    @Override
+    public boolean between(int a, int b, int c) {
+        if (atOrBefore(a, c)) {
+            return atOrBefore(a, b) && atOrBefore(b, c);
+        }
+        return atOrBefore(a, b) || atOrBefore(b, c);
+    }
+
+    @Override
+    public void flip(int a, int b) {
+        if (a == b) {
+            return;
+        }
+        int after = next(b);
+        if (after == a) {
+            // The path is the whole cycle, reversing it changes nothing
+            return;
+        }
+        split(a);
+        split(after);
+        // Now the path a..b and its complement are both runs of whole segments
+        int from = segment[a];
+        int to = segment[b];
+        int segments = 1;
+        for (int s = from; s != to; s = nextSegment[s]) {
+            segments++;
+        }
+        if (2 * segments > segmentCount) {
+            from = segment[after];
+            to = segment[prev(a)];
+            segments = segmentCount - segments;
+        }
+        reverseRun(from, to, segments);
+        if (segmentCount > 2 * target) {
+            copyTo(scratch);
+            load(scratch);
+        } else {
+            renumber();
+        }
+    }
+
+    private int first(int s) {
+        return reversed[s] ? tail[s] : head[s];
+    }
+
+    private int last(int s) {
+        return reversed[s] ? head[s] : tail[s];
+    }
+
+    // Whether x comes no later than y when the tour is read from the origin segment
+    private boolean atOrBefore(int x, int y) {
+        int sx = segment[x];
+        int sy = segment[y];
+        if (sx != sy) {
+            return rank[sx] < rank[sy];
+        }
+        return reversed[sx] ? key[x] >= key[y] : key[x] <= key[y];
+    }
+
+    // Makes city the first one of its segment (in tour order) by moving the
+    // smaller part of the segment into a new segment
+    private void split(int city) {
+        int s = segment[city];
+        if (city == first(s)) {
+            return;
+        }
+        // Cut the internal list between low (ending at lowEnd) and high (starting at highStart)
+        int lowEnd;
+        int highStart;
+        if (reversed[s]) {
+            lowEnd = city;
+            highStart = succ[city];
+        } else {
+            lowEnd = pred[city];
+            highStart = city;
+        }
+        succ[lowEnd] = -1;
+        pred[highStart] = -1;
+
+        // Walk both parts at once until one of them ends, so the cost is the smaller size
+        int lowWalk = lowEnd;
+        int highWalk = highStart;
+        int steps = 1;
+        while (pred[lowWalk] >= 0 && succ[highWalk] >= 0) {
+            lowWalk = pred[lowWalk];
+            highWalk = succ[highWalk];
+            steps++;
+        }
+        boolean moveLow = pred[lowWalk] < 0;
+
+        int t = freeSegments[--freeCount];
+        segmentCount++;
+        reversed[t] = reversed[s];
+        if (moveLow) {
+            head[t] = head[s];
+            tail[t] = lowEnd;
+            head[s] = highStart;
+        } else {
+            head[t] = highStart;
+            tail[t] = tail[s];
+            tail[s] = lowEnd;
+        }
+        for (int c = head[t]; c >= 0; c = succ[c]) {
+            segment[c] = t;
+        }
+
+        // In tour order the high part follows the low part unless the segment is reversed
+        boolean movedIsLater = moveLow == reversed[s];
+        if (movedIsLater) {
+            int after = nextSegment[s];
+            nextSegment[s] = t;
+            prevSegment[t] = s;
+            nextSegment[t] = after;
+            prevSegment[after] = t;
+        } else {
+            int before = prevSegment[s];
+            prevSegment[s] = t;
+            nextSegment[t] = s;
+            prevSegment[t] = before;
+            nextSegment[before] = t;
+        }
+    }
+
+    // Reverses the run of segments from..to (following nextSegment)
+    private void reverseRun(int from, int to, int segments) {
+        int before = prevSegment[from];
+        int after = nextSegment[to];
+        int s = from;
+        for (int i = 0; i < segments; i++) {
+            run[i] = s;
+            reversed[s] = !reversed[s];
+            s = nextSegment[s];
+        }
+        int previous = before;
+        for (int i = segments - 1; i >= 0; i--) {
+            nextSegment[previous] = run[i];
+            prevSegment[run[i]] = previous;
+            previous = run[i];
+        }
+        nextSegment[previous] = after;
+        prevSegment[after] = previous;
+    }
+
+    private void renumber() {
+        int s = origin;
+        for (int r = 0; r < segmentCount; r++) {
+            rank[s] = r;
+            s = nextSegment[s];
+        }
+    }
+}
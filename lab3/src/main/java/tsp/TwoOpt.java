@@ -0,0 +1,91 @@
+package tsp;
+
+/**
+ * 2-opt move on an array tour: reversing positions i..j replaces edges
+ * (tour[i-1], tour[i]) and (tour[j], tour[j+1]) with (tour[i-1], tour[j])
+ * and (tour[i], tour[j+1]). Positions wrap around the end of the array.
+ */
+public final class TwoOpt {
+
+    private TwoOpt() {
+    }
+
+    // Change of the tour length caused by reversing tour[i..j], i <= j
+    public static double delta(int[] tour, int i, int j, DistanceMatrix distances) {
+        int n = tour.length;
+        if (i == 0 && j == n - 1) {
+            return 0;
+        }
+        int before = tour[i == 0 ? n - 1 : i - 1];
+        int first = tour[i];
+        int last = tour[j];
+        int after = tour[j == n - 1 ? 0 : j + 1];
+        return distances.get(before, last) + distances.get(first, after)
+                - distances.get(before, first) - distances.get(last, after);
+    }
+
+    // Reverses tour[i..j], i <= j. When the complementary arc is shorter it is
+    // reversed instead, which gives the same cycle with half the work at most.
+    public static void reverse(int[] tour, int i, int j) {
+        int n = tour.length;
+        int length = j - i + 1;
+        if (2 * length <= n) {
+            while (i < j) {
+                int temp = tour[i];
+                tour[i] = tour[j];
+                tour[j] = temp;
+                i++;
+                j--;
+            }
+            return;
+        }
+        int left = j + 1;
+        int right = i - 1 + n;
+        for (int k = (n - length) / 2; k > 0; k--) {
+            int l = left >= n ? left - n : left;
+            int r = right >= n ? right - n : right;
+            int temp = tour[l];
+            tour[l] = tour[r];
+            tour[r] = temp;
+            left++;
+            right--;
+        }
+    }
+
+    // Reverses the cyclic path tour[i], tour[i+1], ..., tour[j] (i may be past j)
+    // and keeps pos[] as the inverse of tour[]. The shorter side is reversed.
+    public static void reversePath(int[] tour, int[] pos, int i, int j) {
+        int n = tour.length;
+        int length = j - i;
+        if (length < 0) {
+            length += n;
+        }
+        length++;
+        if (2 * length > n) {
+            int next = j + 1;
+            j = i - 1;
+            i = next;
+            length = n - length;
+            if (i == n) {
+                i = 0;
+            }
+            if (j < 0) {
+                j = n - 1;
+            }
+        }
+        for (int k = length / 2; k > 0; k--) {
+            int a = tour[i];
+            int b = tour[j];
+            tour[i] = b;
+            pos[b] = i;
+            tour[j] = a;
+            pos[a] = j;
+            if (++i == n) {
+                i = 0;
+            }
+            if (--j < 0) {
+                j = n - 1;
+            }
+        }
+    }
+}
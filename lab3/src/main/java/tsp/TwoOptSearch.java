@@ -0,0 +1,128 @@
+package tsp;
+
+/**
+ * First-improvement 2-opt local search restricted to candidate neighbour
+ * lists, driven by don't-look bits: only cities in the active queue are
+ * scanned, and the endpoints of every applied move are reactivated.
+ * Gains are computed in O(1); one instance is not thread-safe.
+ */
+public final class TwoOptSearch implements LocalOptimizer {
+
+    private static final double EPSILON = 1e-10;
+
+    private final DistanceMatrix distances;
+    private final int[][] neighbours;
+    private final int n;
+    private final boolean[] queued;
+    private final int[] queue;
+    private int queueHead;
+    private int queueSize;
+    // Tour under search, and the one reused for optimize(int[])
+    private Tour tour;
+    private Tour arrayTour;
+    private long movesTried;
+    private long movesApplied;
+
+    public TwoOptSearch(DistanceMatrix distances, int[][] neighbours) {
+        this.distances = distances;
+        this.neighbours = neighbours;
+        this.n = distances.size();
+        this.queued = new boolean[n];
+        this.queue = new int[n];
+    }
+
+    // Improves the tour in place until it is 2-optimal w.r.t. the candidate lists.
+    // Returns how much shorter the tour became.
+    @Override
+    public double optimize(int[] order) {
+        if (arrayTour == null) {
+            arrayTour = Tour.of(order);
+        } else {
+            arrayTour.load(order);
+        }
+        double gain = optimize(arrayTour);
+        arrayTour.copyTo(order);
+        return gain;
+    }
+
+    // Same on a tour object, which is improved in place
+    @Override
+    public double optimize(Tour tour) {
+        this.tour = tour;
+        for (int i = 0, city = 0; i < n; i++, city = tour.next(city)) {
+            push(city);
+        }
+
+        double gain = 0;
+        while (queueSize > 0) {
+            int city = poll();
+            double moveGain = improveCity(city);
+            if (moveGain > 0) {
+                gain += moveGain;
+                push(city);
+            }
+        }
+        this.tour = null;
+        return gain;
+    }
+
+    public long movesTried() {
+        return movesTried;
+    }
+
+    public long movesApplied() {
+        return movesApplied;
+    }
+
+    // Tries to make a adjacent to one of its candidates, first in the successor
+    // direction and then in the predecessor direction; applies the first gain
+    private double improveCity(int a) {
+        for (int direction = 0; direction < 2; direction++) {
+            boolean forward = direction == 0;
+            int b = forward ? tour.next(a) : tour.prev(a);
+            double ab = distances.get(a, b);
+            for (int c : neighbours[a]) {
+                double ac = distances.get(a, c);
+                if (ac >= ab) {
+                    break;
+                }
+                int d = forward ? tour.next(c) : tour.prev(c);
+                if (c == b || d == a) {
+                    continue;
+                }
+                movesTried++;
+                double gain = ab + distances.get(c, d) - ac - distances.get(b, d);
+                if (gain > EPSILON) {
+                    if (forward) {
+                        tour.flip(b, c);
+                    } else {
+                        tour.flip(c, b);
+                    }
+                    movesApplied++;
+                    push(b);
+                    push(c);
+                    push(d);
+                    return gain;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private void push(int city) {
+        if (!queued[city]) {
+            queued[city] = true;
+            int tail = queueHead + queueSize;
+            queue[tail >= n ? tail - n : tail] = city;
+            queueSize++;
+        }
+    }
+
+    private int poll() {
+        int city = queue[queueHead];
+        queueHead = queueHead + 1 == n ? 0 : queueHead + 1;
+        queueSize--;
+        queued[city] = false;
+        return city;
+    }
+}
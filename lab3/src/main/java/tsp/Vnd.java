@@ -0,0 +1,46 @@
+package tsp;
+
+/**
+ * Variable neighbourhood descent over a list of local searches, usually
+ * cheapest first (2-opt, then or-opt). Whenever a later neighbourhood
+ * improves the tour the descent restarts from the first one, so the result
+ * is a local optimum of all of them.
+ */
+public final class Vnd implements LocalOptimizer {
+
+    private final LocalOptimizer[] stages;
+    private Tour arrayTour;
+
+    public Vnd(LocalOptimizer... stages) {
+        this.stages = stages.clone();
+    }
+
+    // 2-opt followed by or-opt on the same candidate lists
+    public static Vnd twoOptOrOpt(DistanceMatrix distances, int[][] neighbours) {
+        return new Vnd(new TwoOptSearch(distances, neighbours), new OrOptSearch(distances, neighbours));
+    }
+
+    @Override
+    public double optimize(int[] order) {
+        if (arrayTour == null) {
+            arrayTour = Tour.of(order);
+        } else {
+            arrayTour.load(order);
+        }
+        double gain = optimize(arrayTour);
+        arrayTour.copyTo(order);
+        return gain;
+    }
+
+    @Override
+    public double optimize(Tour tour) {
+        double gain = 0;
+        int k = 0;
+        while (k < stages.length) {
+            double stageGain = stages[k].optimize(tour);
+            gain += stageGain;
+            k = stageGain > 0 && k > 0 ? 0 : k + 1;
+        }
+        return gain;
+    }
+}
@@ -0,0 +1,376 @@
+package tsp.bench;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import tsp.Budget;
+import tsp.Instance;
+import tsp.ProgressListener;
+import tsp.Solution;
+import tsp.Solvers;
+import tsp.TspLib;
+import tsp.TspSolver;
+
+/**
+ * Runs every solver on every instance for seeds 1..N under one budget and
+ * records per run the tour length, evaluations, wall and process CPU time
+ * and peak heap; summaries add best, mean and standard deviation of the
+ * length and the gap to the known optimum. Runs are sequential, each solver
+ * uses the shared pool on its own. The first runs include JIT warm-up.
+ *
+ * Usage: BenchmarkRunner [--instances dir-or-files] [--names a,b] [--solvers a,b]
+ * [--seeds N] [--time 60s] [--evaluations N] [--out prefix]
+ * writes prefix-runs.csv, prefix-summary.csv and prefix.json.
+ */
+public final class BenchmarkRunner {
+
+    private final List<TspSolver> solvers;
+    private final List<Path> instances;
+    private final int seeds;
+    private final Budget budget;
+
+    public BenchmarkRunner(List<TspSolver> solvers, List<Path> instances, int seeds, Budget budget) {
+        if (seeds < 1) {
+            throw new IllegalArgumentException("At least one seed is needed: " + seeds);
+        }
+        this.solvers = List.copyOf(solvers);
+        this.instances = List.copyOf(instances);
+        this.seeds = seeds;
+        this.budget = budget;
+    }
+
+    public Budget budget() {
+        return budget;
+    }
+
+    // Runs everything in instance, solver, seed order, logging one line per run
+    public List<Run> run(PrintStream log) throws IOException {
+        List<Run> runs = new ArrayList<>();
+        for (Path path : instances) {
+            Instance instance = TspLib.load(path);
+            for (TspSolver solver : solvers) {
+                for (long seed = 1; seed <= seeds; seed++) {
+                    Run run = measure(instance, solver, seed);
+                    log.printf("%-8s %-8s seed %d: %.2f (%+.2f%%) %d ms%n", instance.name(), solver.name(), seed,
+                            run.length, run.gap(), run.wallNanos / 1_000_000);
+                    runs.add(run);
+                }
+            }
+        }
+        return runs;
+    }
+
+    private Run measure(Instance instance, TspSolver solver, long seed) {
+        // Start from a clean heap so that the peak belongs to this run
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long cpuBefore = processCpuNanos();
+        long wallBefore = System.nanoTime();
+
+        Solution solution = solver.solve(instance, budget, seed, ProgressListener.NONE);
+
+        long wallNanos = System.nanoTime() - wallBefore;
+        long cpuAfter = processCpuNanos();
+        // Pools peak at different moments, so the sum is an upper bound
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+        return new Run(instance.name(), solver.name(), seed, solution.length(), solution.evaluations(), wallNanos,
+                cpuBefore < 0 || cpuAfter < 0 ? -1 : cpuAfter - cpuBefore, peakHeap);
+    }
+
+    // CPU time of all threads of the JVM, -1 when the platform does not report it
+    private static long processCpuNanos() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean platform) {
+            return platform.getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    // One summary per instance and solver, in the order the runs came
+    public static List<Summary> summarize(List<Run> runs) {
+        Map<String, List<Run>> groups = new LinkedHashMap<>();
+        for (Run run : runs) {
+            groups.computeIfAbsent(run.instance + '\0' + run.solver, key -> new ArrayList<>()).add(run);
+        }
+        List<Summary> summaries = new ArrayList<>();
+        for (List<Run> group : groups.values()) {
+            summaries.add(new Summary(group));
+        }
+        return summaries;
+    }
+
+    /**
+     * Outcome of one solver run; times in nanoseconds, CPU time -1 when unknown.
+     */
+    public static final class Run {
+        private final String instance;
+        private final String solver;
+        private final long seed;
+        private final double length;
+        private final long evaluations;
+        private final long wallNanos;
+        private final long cpuNanos;
+        private final long peakHeapBytes;
+
+        public Run(String instance, String solver, long seed, double length, long evaluations, long wallNanos,
+                   long cpuNanos, long peakHeapBytes) {
+            this.instance = instance;
+            this.solver = solver;
+            this.seed = seed;
+            this.length = length;
+            this.evaluations = evaluations;
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+
+        public String instance() {
+            return instance;
+        }
+
+        public String solver() {
+            return solver;
+        }
+
+        public long seed() {
+            return seed;
+        }
+
+        public double length() {
+            return length;
+        }
+
+        public long evaluations() {
+            return evaluations;
+        }
+
+        public long wallNanos() {
+            return wallNanos;
+        }
+
+        public long cpuNanos() {
+            return cpuNanos;
+        }
+
+        public long peakHeapBytes() {
+            return peakHeapBytes;
+        }
+
+        // Percent above the known optimum, NaN when it is unknown
+        public double gap() {
+            return KnownOptima.gap(instance, length);
+        }
+    }
+
+    /**
+     * Statistics of the runs of one solver on one instance. Times and
+     * evaluations are means, the peak heap is the largest of the runs.
+     */
+    public static final class Summary {
+        private final String instance;
+        private final String solver;
+        private final int runs;
+        private final double best;
+        private final double mean;
+        private final double stddev;
+        private final double meanEvaluations;
+        private final double meanWallNanos;
+        private final double meanCpuNanos;
+        private final long peakHeapBytes;
+
+        Summary(List<Run> group) {
+            Run first = group.get(0);
+            this.instance = first.instance;
+            this.solver = first.solver;
+            this.runs = group.size();
+            double best = Double.POSITIVE_INFINITY;
+            double sum = 0;
+            double evaluations = 0;
+            double wall = 0;
+            double cpu = 0;
+            long peak = 0;
+            boolean cpuKnown = true;
+            for (Run run : group) {
+                best = Math.min(best, run.length);
+                sum += run.length;
+                evaluations += run.evaluations;
+                wall += run.wallNanos;
+                cpu += run.cpuNanos;
+                cpuKnown &= run.cpuNanos >= 0;
+                peak = Math.max(peak, run.peakHeapBytes);
+            }
+            double mean = sum / runs;
+            double squares = 0;
+            for (Run run : group) {
+                squares += (run.length - mean) * (run.length - mean);
+            }
+            this.best = best;
+            this.mean = mean;
+            this.stddev = runs > 1 ? Math.sqrt(squares / (runs - 1)) : 0;
+            this.meanEvaluations = evaluations / runs;
+            this.meanWallNanos = wall / runs;
+            this.meanCpuNanos = cpuKnown ? cpu / runs : -1;
+            this.peakHeapBytes = peak;
+        }
+
+        public String instance() {
+            return instance;
+        }
+
+        public String solver() {
+            return solver;
+        }
+
+        public int runs() {
+            return runs;
+        }
+
+        public double best() {
+            return best;
+        }
+
+        public double mean() {
+            return mean;
+        }
+
+        // Sample standard deviation, 0 for a single run
+        public double stddev() {
+            return stddev;
+        }
+
+        public double meanEvaluations() {
+            return meanEvaluations;
+        }
+
+        public double meanWallNanos() {
+            return meanWallNanos;
+        }
+
+        // -1 when the CPU time of a run is unknown
+        public double meanCpuNanos() {
+            return meanCpuNanos;
+        }
+
+        public long peakHeapBytes() {
+            return peakHeapBytes;
+        }
+
+        public double bestGap() {
+            return KnownOptima.gap(instance, best);
+        }
+
+        public double meanGap() {
+            return KnownOptima.gap(instance, mean);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path source = Path.of(".");
+        List<String> names = null;
+        List<String> solverNames = Solvers.names();
+        int seeds = 5;
+        Budget budget = Budget.ofTime(Duration.ofSeconds(60));
+        String out = "bench";
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--instances" -> source = Path.of(value);
+                case "--names" -> names = Arrays.asList(value.split(","));
+                case "--solvers" -> solverNames = Arrays.asList(value.split(","));
+                case "--seeds" -> seeds = Integer.parseInt(value);
+                case "--time" -> budget = budget.withTime(parseDuration(value));
+                case "--evaluations" -> budget = budget.withEvaluations(Long.parseLong(value));
+                case "--out" -> out = value;
+                default -> throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+
+        List<TspSolver> solvers = solverNames.stream().map(Solvers::byName).toList();
+        List<Path> instances = instances(source, names);
+        if (instances.isEmpty()) {
+            System.err.println("No .tsp files found in " + source.toAbsolutePath());
+            return;
+        }
+        BenchmarkRunner runner = new BenchmarkRunner(solvers, instances, seeds, budget);
+        System.out.println(instances.size() + " instances, solvers " + solverNames + ", " + seeds + " seeds, " + budget);
+        List<Run> runs = runner.run(System.out);
+        List<Summary> summaries = summarize(runs);
+        Results.writeRunsCsv(Path.of(out + "-runs.csv"), runs);
+        Results.writeSummaryCsv(Path.of(out + "-summary.csv"), summaries);
+        Results.writeJson(Path.of(out + ".json"), budget, runs, summaries);
+        System.out.println("Results written to " + out + "-runs.csv, " + out + "-summary.csv and " + out + ".json");
+    }
+
+    // A directory gives its .tsp files by size then name; files may also be listed with commas
+    private static List<Path> instances(Path source, List<String> names) throws IOException {
+        List<Path> paths;
+        if (Files.isDirectory(source)) {
+            try (Stream<Path> files = Files.list(source)) {
+                paths = files.filter(path -> path.getFileName().toString().endsWith(".tsp")).toList();
+            }
+        } else {
+            paths = Arrays.stream(source.toString().split(",")).map(Path::of).toList();
+        }
+        return paths.stream()
+                .filter(path -> names == null || names.contains(baseName(path)))
+                .sorted((a, b) -> {
+                    int bySize = Integer.compare(size(baseName(a)), size(baseName(b)));
+                    return bySize != 0 ? bySize : a.compareTo(b);
+                })
+                .toList();
+    }
+
+    private static String baseName(Path path) {
+        String file = path.getFileName().toString();
+        return file.endsWith(".tsp") ? file.substring(0, file.length() - 4) : file;
+    }
+
+    // TSPLIB names end with the number of cities
+    private static int size(String name) {
+        int i = name.length();
+        while (i > 0 && Character.isDigit(name.charAt(i - 1))) {
+            i--;
+        }
+        return i == name.length() ? Integer.MAX_VALUE : Integer.parseInt(name.substring(i));
+    }
+
+    // 90s, 5m, 500ms, 1h or an ISO-8601 duration such as PT90S
+    static Duration parseDuration(String text) {
+        if (text.startsWith("P") || text.startsWith("p")) {
+            return Duration.parse(text);
+        }
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        long amount = Long.parseLong(text.substring(0, text.length() - 1));
+        return switch (text.charAt(text.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Bad duration: " + text);
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package tsp.bench;
+
+import java.util.SplittableRandom;
+
+import tsp.Budget;
+import tsp.Instance;
+import tsp.Metrics;
+import tsp.ProgressListener;
+import tsp.Solution;
+import tsp.Solvers;
+import tsp.TspSolver;
+
+/**
+ * Checks that an evaluation budget of N runs exactly N evaluations, so that
+ * runs compared by BenchmarkRunner under the same budget did the same work.
+ * Every solver runs on a random instance with a few small budgets; both the
+ * count its Solution reports and the evaluations the solver actually did,
+ * as counted by Metrics, must equal N. Tabu charges its scored moves once
+ * per iteration and may only go over N. Exits with status 1 on a mismatch.
+ *
+ * Usage: java -Dtsp.metrics=true tsp.bench.BudgetCheck [cities]
+ */
+public final class BudgetCheck {
+
+    private static final long[] BUDGETS = {1, 2, 1000};
+
+    private BudgetCheck() {
+    }
+
+    public static void main(String[] args) {
+        if (!Metrics.ENABLED) {
+            System.err.println("Run with -Dtsp.metrics=true, the performed evaluations are counted by Metrics");
+            System.exit(2);
+        }
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        SplittableRandom random = new SplittableRandom(1);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextDouble(1000);
+            ys[i] = random.nextDouble(1000);
+        }
+        Instance instance = new Instance("random" + n, "EUC_2D", xs, ys);
+
+        boolean failed = false;
+        for (TspSolver solver : Solvers.all()) {
+            for (long evaluations : BUDGETS) {
+                Metrics.reset();
+                Solution solution = solver.solve(instance, Budget.ofEvaluations(evaluations), 1, ProgressListener.NONE);
+                long performed = Metrics.Counter.EVALUATIONS.sum();
+                boolean ok = performed == solution.evaluations() && (solver.name().equals("tabu")
+                        ? performed >= evaluations
+                        : performed == evaluations);
+                System.out.printf("%-8s budget %5d: %5d reported, %5d performed%s%n", solver.name(), evaluations,
+                        solution.evaluations(), performed, ok ? "" : "  MISMATCH");
+                failed |= !ok;
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
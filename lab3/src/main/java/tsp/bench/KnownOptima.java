@@ -0,0 +1,44 @@
+package tsp.bench;
+
+import java.util.Map;
+import java.util.OptionalDouble;
+
+/**
+ * Optimal tour lengths of the bundled instances (VLSI and TSPLIB data sets),
+ * for the gap of a solver to the optimum. They are optima under TSPLIB's
+ * distances rounded to integers, while the solvers measure exact Euclidean
+ * lengths, so a gap is approximate (and can be slightly negative).
+ */
+public final class KnownOptima {
+
+    private static final Map<String, Double> OPTIMA = Map.ofEntries(
+            Map.entry("xqf131", 564.0),
+            Map.entry("xqg237", 1019.0),
+            Map.entry("pma343", 1368.0),
+            Map.entry("pka379", 1332.0),
+            Map.entry("bcl380", 1621.0),
+            Map.entry("pbl395", 1281.0),
+            Map.entry("pbk411", 1343.0),
+            Map.entry("pbn423", 1365.0),
+            Map.entry("pbm436", 1443.0),
+            Map.entry("xql662", 2513.0),
+            Map.entry("xit1083", 3558.0),
+            Map.entry("icw1483", 4416.0),
+            Map.entry("djc1785", 6115.0),
+            Map.entry("dcb2086", 6600.0),
+            Map.entry("pds2566", 7643.0));
+
+    private KnownOptima() {
+    }
+
+    public static OptionalDouble of(String instance) {
+        Double optimum = OPTIMA.get(instance);
+        return optimum == null ? OptionalDouble.empty() : OptionalDouble.of(optimum);
+    }
+
+    // Relative excess over the optimum in percent, NaN when the optimum is unknown
+    public static double gap(String instance, double length) {
+        OptionalDouble optimum = of(instance);
+        return optimum.isPresent() ? 100 * (length - optimum.getAsDouble()) / optimum.getAsDouble() : Double.NaN;
+    }
+}
@@ -0,0 +1,138 @@
+package tsp.bench;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+import tsp.Budget;
+
+/**
+ * CSV and JSON output of BenchmarkRunner. Numbers use a dot as decimal
+ * separator whatever the locale; unknown values (a gap without a known
+ * optimum, CPU time the platform does not report) are empty in CSV and
+ * null in JSON. Times are in milliseconds.
+ */
+public final class Results {
+
+    private Results() {
+    }
+
+    public static void writeRunsCsv(Path path, List<BenchmarkRunner.Run> runs) throws IOException {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write("instance,solver,seed,length,gap_percent,evaluations,wall_ms,cpu_ms,peak_heap_bytes\n");
+            for (BenchmarkRunner.Run run : runs) {
+                out.write(String.join(",", run.instance(), run.solver(), Long.toString(run.seed()),
+                        csv(run.length()), csv(run.gap()), Long.toString(run.evaluations()),
+                        csv(millis(run.wallNanos())), csv(millis(run.cpuNanos())), Long.toString(run.peakHeapBytes())));
+                out.write('\n');
+            }
+        }
+    }
+
+    public static void writeSummaryCsv(Path path, List<BenchmarkRunner.Summary> summaries) throws IOException {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write("instance,solver,runs,best,mean,stddev,best_gap_percent,mean_gap_percent,"
+                    + "mean_evaluations,mean_wall_ms,mean_cpu_ms,peak_heap_bytes\n");
+            for (BenchmarkRunner.Summary summary : summaries) {
+                out.write(String.join(",", summary.instance(), summary.solver(), Integer.toString(summary.runs()),
+                        csv(summary.best()), csv(summary.mean()), csv(summary.stddev()),
+                        csv(summary.bestGap()), csv(summary.meanGap()), csv(summary.meanEvaluations()),
+                        csv(millis(summary.meanWallNanos())), csv(millis(summary.meanCpuNanos())),
+                        Long.toString(summary.peakHeapBytes())));
+                out.write('\n');
+            }
+        }
+    }
+
+    public static void writeJson(Path path, Budget budget, List<BenchmarkRunner.Run> runs,
+                                 List<BenchmarkRunner.Summary> summaries) throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"created\": ").append(string(Instant.now().toString())).append(",\n");
+        json.append("  \"java\": ").append(string(System.getProperty("java.version"))).append(",\n");
+        json.append("  \"processors\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+        json.append("  \"maxHeapBytes\": ").append(Runtime.getRuntime().maxMemory()).append(",\n");
+        json.append("  \"budget\": {\"timeMs\": ")
+                .append(budget.hasTimeLimit() ? Long.toString(budget.time().toMillis()) : "null")
+                .append(", \"evaluations\": ")
+                .append(budget.hasEvaluationLimit() ? Long.toString(budget.evaluations()) : "null")
+                .append("},\n");
+
+        json.append("  \"runs\": [");
+        for (int i = 0; i < runs.size(); i++) {
+            BenchmarkRunner.Run run = runs.get(i);
+            json.append(i == 0 ? "\n" : ",\n").append("    {")
+                    .append("\"instance\": ").append(string(run.instance()))
+                    .append(", \"solver\": ").append(string(run.solver()))
+                    .append(", \"seed\": ").append(run.seed())
+                    .append(", \"length\": ").append(number(run.length()))
+                    .append(", \"gapPercent\": ").append(number(run.gap()))
+                    .append(", \"evaluations\": ").append(run.evaluations())
+                    .append(", \"wallMs\": ").append(number(millis(run.wallNanos())))
+                    .append(", \"cpuMs\": ").append(number(millis(run.cpuNanos())))
+                    .append(", \"peakHeapBytes\": ").append(run.peakHeapBytes())
+                    .append('}');
+        }
+        json.append(runs.isEmpty() ? "],\n" : "\n  ],\n");
+
+        json.append("  \"summary\": [");
+        for (int i = 0; i < summaries.size(); i++) {
+            BenchmarkRunner.Summary summary = summaries.get(i);
+            json.append(i == 0 ? "\n" : ",\n").append("    {")
+                    .append("\"instance\": ").append(string(summary.instance()))
+                    .append(", \"solver\": ").append(string(summary.solver()))
+                    .append(", \"runs\": ").append(summary.runs())
+                    .append(", \"best\": ").append(number(summary.best()))
+                    .append(", \"mean\": ").append(number(summary.mean()))
+                    .append(", \"stddev\": ").append(number(summary.stddev()))
+                    .append(", \"bestGapPercent\": ").append(number(summary.bestGap()))
+                    .append(", \"meanGapPercent\": ").append(number(summary.meanGap()))
+                    .append(", \"meanEvaluations\": ").append(number(summary.meanEvaluations()))
+                    .append(", \"meanWallMs\": ").append(number(millis(summary.meanWallNanos())))
+                    .append(", \"meanCpuMs\": ").append(number(millis(summary.meanCpuNanos())))
+                    .append(", \"peakHeapBytes\": ").append(summary.peakHeapBytes())
+                    .append('}');
+        }
+        json.append(summaries.isEmpty() ? "]\n" : "\n  ]\n");
+        json.append("}\n");
+        Files.writeString(path, json, StandardCharsets.UTF_8);
+    }
+
+    // Negative nanoseconds mark an unknown time
+    private static double millis(double nanos) {
+        return nanos < 0 ? Double.NaN : nanos / 1e6;
+    }
+
+    private static String csv(double value) {
+        return Double.isFinite(value) ? String.format(Locale.ROOT, "%.4f", value) : "";
+    }
+
+    private static String number(double value) {
+        return Double.isFinite(value) ? String.format(Locale.ROOT, "%.4f", value) : "null";
+    }
+
+    private static String string(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}